@@ -0,0 +1,23 @@
+package com.omnik.projects.task_manager.controller;
+
+import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
+import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+import com.omnik.projects.task_manager.enums.reports.SortBy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/reports/jobs")
+public interface ReportJobsController {
+
+    @PostMapping("/{requester-username}")
+    ResponseEntity<ApiResponseDTO<?>> submitReportJob(@PathVariable("requester-username") String requesterUsername,
+                                                      @RequestBody ReportsFilterRequestDTO filter, @RequestParam(name = "sortBy", required = false) SortBy sortBy, @RequestParam(name = "groupBy", required = false) GroupBy groupBy);
+
+    @GetMapping("/{requester-username}/{job-id}")
+    ResponseEntity<ApiResponseDTO<?>> getReportJob(@PathVariable("requester-username") String requesterUsername, @PathVariable("job-id") String jobId);
+
+    @GetMapping("/{requester-username}/{job-id}/result")
+    ResponseEntity<ApiResponseDTO<?>> getReportJobResult(@PathVariable("requester-username") String requesterUsername, @PathVariable("job-id") String jobId);
+}
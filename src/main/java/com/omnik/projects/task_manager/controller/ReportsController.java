@@ -4,16 +4,47 @@ import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
 import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
 import com.omnik.projects.task_manager.enums.reports.GroupBy;
 import com.omnik.projects.task_manager.enums.reports.SortBy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/reports")
 public interface ReportsController {
 
     @PostMapping("/{requester-username}")
-    ResponseEntity<ApiResponseDTO<?>> deleteTask(@PathVariable("requester-username") String requesterUsername,
-                                                 @RequestBody ReportsFilterRequestDTO filter, @RequestParam(name = "sortBy", required = false) SortBy sortBy, @RequestParam(name = "groupBy", required = false) GroupBy groupBy);
+    ResponseEntity<ApiResponseDTO<?>> fetchReport(@PathVariable("requester-username") String requesterUsername,
+                                                  @RequestBody ReportsFilterRequestDTO filter, @RequestParam(name = "sortBy", required = false) SortBy sortBy, @RequestParam(name = "groupBy", required = false) GroupBy groupBy,
+                                                  @RequestParam(name = "explain", required = false, defaultValue = "false") boolean explain,
+                                                  @RequestParam(name = "limit", required = false) Integer limit, @RequestParam(name = "cursor", required = false) String cursor,
+                                                  @RequestParam(name = "fields", required = false) List<String> fields,
+                                                  @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                  @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept);
+
+    @PostMapping(value = "/stream/{requester-username}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    ResponseEntity<StreamingResponseBody> streamReport(@PathVariable("requester-username") String requesterUsername,
+                                   @RequestBody ReportsFilterRequestDTO filter, @RequestParam(name = "sortBy", required = false) SortBy sortBy, @RequestParam(name = "groupBy", required = false) GroupBy groupBy,
+                                   @RequestParam(name = "fields", required = false) List<String> fields);
+
+    @PostMapping("/count/{requester-username}")
+    ResponseEntity<ApiResponseDTO<?>> countTasks(@PathVariable("requester-username") String requesterUsername,
+                                                 @RequestBody ReportsFilterRequestDTO filter, @RequestParam(name = "groupBy", required = false) GroupBy groupBy);
+
+    @PostMapping("/pivot/{requester-username}")
+    ResponseEntity<ApiResponseDTO<?>> pivotTasks(@PathVariable("requester-username") String requesterUsername,
+                                                 @RequestBody ReportsFilterRequestDTO filter, @RequestParam(name = "groupBy") List<GroupBy> groupBy, @RequestParam(name = "sortBy", required = false) SortBy sortBy,
+                                                 @RequestParam(name = "countsOnly", required = false, defaultValue = "false") boolean countsOnly,
+                                                 @RequestParam(name = "fields", required = false) List<String> fields);
+
+    @GetMapping("/counters/{requester-username}")
+    ResponseEntity<ApiResponseDTO<?>> getCounters(@PathVariable("requester-username") String requesterUsername);
+
+    @GetMapping("/cache/{requester-username}")
+    ResponseEntity<ApiResponseDTO<?>> getCacheStats(@PathVariable("requester-username") String requesterUsername);
 
 
 }
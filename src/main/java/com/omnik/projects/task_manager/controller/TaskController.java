@@ -1,12 +1,16 @@
 package com.omnik.projects.task_manager.controller;
 
 import com.omnik.projects.task_manager.dto.request.DependencyTasksRequestDTO;
+import com.omnik.projects.task_manager.dto.request.TaskPlanRequestDTO;
 import com.omnik.projects.task_manager.dto.request.TaskRequestDTO;
+import com.omnik.projects.task_manager.dto.request.TaskUpdateRequestDTO;
 import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
 import com.omnik.projects.task_manager.enums.TaskStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/tasks")
 public interface TaskController {
@@ -25,9 +29,18 @@ public interface TaskController {
     @PostMapping("/buffer/{task-name}")
     ResponseEntity<ApiResponseDTO<?>> bufferTask(@PathVariable("task-name") String taskName);
 
+    @PostMapping("/plan-backlog/{requester-username}")
+    ResponseEntity<ApiResponseDTO<?>> planBacklog(@PathVariable("requester-username") String requesterUsername, @RequestBody List<TaskPlanRequestDTO> plans);
+
     @PatchMapping("/process/{requester-username}/{task-name}/{status}")
     ResponseEntity<ApiResponseDTO<?>> processTask(@PathVariable("requester-username")String requesterUsername, @PathVariable("task-name")String taskName, @PathVariable("status")TaskStatus status);
 
+    @PatchMapping("/update/{requester-username}/{task-name}")
+    ResponseEntity<ApiResponseDTO<?>> updateTask(@PathVariable("requester-username") String requesterUsername, @PathVariable("task-name") String taskName, @RequestBody TaskUpdateRequestDTO taskUpdateRequest);
+
+    @PatchMapping("/update/{requester-username}")
+    ResponseEntity<ApiResponseDTO<?>> updateTasks(@PathVariable("requester-username") String requesterUsername, @RequestBody List<TaskUpdateRequestDTO> taskUpdateRequests);
+
     @DeleteMapping("/delete/{requester-username}/{task-name}")
     ResponseEntity<ApiResponseDTO<?>> deleteTask(@PathVariable("requester-username") String requesterUsername,@PathVariable("task-name") String taskName);
 
@@ -37,4 +50,7 @@ public interface TaskController {
     @PatchMapping("/dependencies/{requester-username}/{task-name}")
     ResponseEntity<ApiResponseDTO<?>> addDependencyTasks(@PathVariable("requester-username")String requesterUsername, @PathVariable("task-name")String taskName, @RequestBody DependencyTasksRequestDTO dependencyTasks);
 
+    @GetMapping("/descriptions/{requester-username}")
+    ResponseEntity<ApiResponseDTO<?>> getDescriptionStats(@PathVariable("requester-username") String requesterUsername);
+
 }
@@ -0,0 +1,35 @@
+package com.omnik.projects.task_manager.controller.impl;
+
+import com.omnik.projects.task_manager.controller.ReportJobsController;
+import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
+import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+import com.omnik.projects.task_manager.enums.reports.SortBy;
+import com.omnik.projects.task_manager.service.ReportJobsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReportJobsControllerImpl implements ReportJobsController {
+
+    private final ReportJobsService reportJobsService;
+
+    public ReportJobsControllerImpl(ReportJobsService reportJobsService) {
+        this.reportJobsService = reportJobsService;
+    }
+
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> submitReportJob(String requesterUsername, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy) {
+        return ResponseEntity.ok(reportJobsService.submitReportJob(requesterUsername,filter,sortBy,groupBy));
+    }
+
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> getReportJob(String requesterUsername, String jobId) {
+        return ResponseEntity.ok(reportJobsService.getReportJob(requesterUsername,jobId));
+    }
+
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> getReportJobResult(String requesterUsername, String jobId) {
+        return ResponseEntity.ok(reportJobsService.getReportJobResult(requesterUsername,jobId));
+    }
+}
@@ -1,25 +1,121 @@
 package com.omnik.projects.task_manager.controller.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.omnik.projects.task_manager.controller.ReportsController;
 import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
 import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
 import com.omnik.projects.task_manager.enums.reports.GroupBy;
 import com.omnik.projects.task_manager.enums.reports.SortBy;
 import com.omnik.projects.task_manager.service.ReportsService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @Component
 public class ReportsControllerImpl implements ReportsController {
 
+    private static final List<MediaType> ENCODINGS = List.of(
+            MediaType.APPLICATION_JSON, MediaType.valueOf("application/x-jackson-smile"), MediaType.APPLICATION_CBOR);
+
     private final ReportsService reportsService;
+    private final ObjectMapper objectMapper;
 
-    public ReportsControllerImpl(ReportsService reportsService) {
+    public ReportsControllerImpl(ReportsService reportsService, ObjectMapper objectMapper) {
         this.reportsService = reportsService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> fetchReport(String requesterUsername, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy, boolean explain, Integer limit, String cursor, List<String> fields, String ifNoneMatch, String accept) {
+        MediaType mediaType = negotiate(accept);
+        String eTag = mediaType == null ? null : reportsService.reportETag(requesterUsername,filter,sortBy,groupBy,explain,limit,cursor,fields,mediaType);
+        if (eTag != null && matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        ApiResponseDTO<?> response = reportsService.fetchReport(requesterUsername,filter,sortBy,groupBy,explain,limit,cursor,fields);
+        if (response.isError()) {
+            return ResponseEntity.status(response.getStatus()).varyBy(HttpHeaders.ACCEPT).body(response);
+        }
+        if (eTag == null) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(response);
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).contentType(mediaType).body(response);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamReport(String requesterUsername, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy, List<String> fields) {
+        ApiResponseDTO<StreamingResponseBody> response = reportsService.streamReport(requesterUsername,filter,sortBy,groupBy,fields);
+        if (response.isError()) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(out -> objectMapper.writeValue(out, response));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(response.getData());
+    }
+
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> countTasks(String requesterUsername, ReportsFilterRequestDTO filter, GroupBy groupBy) {
+        return ResponseEntity.ok(reportsService.countTasks(requesterUsername,filter,groupBy));
     }
 
     @Override
-    public ResponseEntity<ApiResponseDTO<?>> deleteTask(String requesterUsername, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy) {
-        return ResponseEntity.ok(reportsService.fetchReport(requesterUsername,filter,sortBy,groupBy));
+    public ResponseEntity<ApiResponseDTO<?>> pivotTasks(String requesterUsername, ReportsFilterRequestDTO filter, List<GroupBy> groupBy, SortBy sortBy, boolean countsOnly, List<String> fields) {
+        return ResponseEntity.ok(reportsService.fetchPivotReport(requesterUsername,filter,groupBy,sortBy,countsOnly,fields));
+    }
+
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> getCounters(String requesterUsername) {
+        return ResponseEntity.ok(reportsService.getCounters(requesterUsername));
+    }
+
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> getCacheStats(String requesterUsername) {
+        return ResponseEntity.ok(reportsService.getCacheStats(requesterUsername));
+    }
+
+    /**
+     * Picks the encoding the report will be written in, the way the message converters would: the most specific
+     * and preferred accepted type that JSON, Smile or CBOR satisfies, JSON first on ties. Returns null if the
+     * Accept header cannot be parsed or accepts none of them, leaving the outcome to Spring.
+     */
+    private static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType acceptedType : accepted) {
+            for (MediaType encoding : ENCODINGS) {
+                if (acceptedType.isCompatibleWith(encoding) && acceptedType.getQualityValue() > 0) {
+                    return encoding;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
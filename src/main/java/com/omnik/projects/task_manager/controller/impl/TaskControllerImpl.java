@@ -2,13 +2,17 @@ package com.omnik.projects.task_manager.controller.impl;
 
 import com.omnik.projects.task_manager.controller.TaskController;
 import com.omnik.projects.task_manager.dto.request.DependencyTasksRequestDTO;
+import com.omnik.projects.task_manager.dto.request.TaskPlanRequestDTO;
 import com.omnik.projects.task_manager.dto.request.TaskRequestDTO;
+import com.omnik.projects.task_manager.dto.request.TaskUpdateRequestDTO;
 import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
 import com.omnik.projects.task_manager.enums.TaskStatus;
 import com.omnik.projects.task_manager.service.TaskService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class TaskControllerImpl implements TaskController {
 
@@ -39,11 +43,26 @@ public class TaskControllerImpl implements TaskController {
         return ResponseEntity.ok(taskService.bufferTask(taskName));
     }
 
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> planBacklog(String requesterUsername, List<TaskPlanRequestDTO> plans) {
+        return ResponseEntity.ok(taskService.planBacklog(requesterUsername,plans));
+    }
+
     @Override
     public ResponseEntity<ApiResponseDTO<?>> processTask(String requesterUsername, String taskName, TaskStatus status) {
         return ResponseEntity.ok(taskService.processTask(requesterUsername,taskName,status));
     }
 
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> updateTask(String requesterUsername, String taskName, TaskUpdateRequestDTO taskUpdateRequest) {
+        return ResponseEntity.ok(taskService.updateTask(requesterUsername,taskName,taskUpdateRequest));
+    }
+
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> updateTasks(String requesterUsername, List<TaskUpdateRequestDTO> taskUpdateRequests) {
+        return ResponseEntity.ok(taskService.updateTasks(requesterUsername,taskUpdateRequests));
+    }
+
     @Override
     public ResponseEntity<ApiResponseDTO<?>> deleteTask(String requesterUsername, String taskName) {
         return ResponseEntity.ok(taskService.deleteTask(requesterUsername,taskName));
@@ -58,4 +77,9 @@ public class TaskControllerImpl implements TaskController {
     public ResponseEntity<ApiResponseDTO<?>> addDependencyTasks(String requesterUsername, String taskName, DependencyTasksRequestDTO dependencyTasks) {
         return ResponseEntity.ok(taskService.addDependencyTasks(requesterUsername,taskName,dependencyTasks));
     }
+
+    @Override
+    public ResponseEntity<ApiResponseDTO<?>> getDescriptionStats(String requesterUsername) {
+        return ResponseEntity.ok(taskService.getDescriptionStats(requesterUsername));
+    }
 }
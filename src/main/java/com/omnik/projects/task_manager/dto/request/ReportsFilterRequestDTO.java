@@ -17,4 +17,8 @@ public class ReportsFilterRequestDTO {
     private Category category;
     private LocalDate deadline;
     private String owner;
+    private Integer priorityFrom;
+    private Integer priorityTo;
+    private LocalDate deadlineFrom;
+    private LocalDate deadlineTo;
 }
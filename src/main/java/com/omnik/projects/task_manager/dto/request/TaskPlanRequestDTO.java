@@ -0,0 +1,16 @@
+package com.omnik.projects.task_manager.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class TaskPlanRequestDTO {
+    private String name;
+    private Integer priority;
+    private LocalDate deadline;
+}
@@ -0,0 +1,18 @@
+package com.omnik.projects.task_manager.dto.request;
+
+import com.omnik.projects.task_manager.enums.Category;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class TaskUpdateRequestDTO {
+    private String name;
+    private Integer priority;
+    private LocalDate deadline;
+    private Category category;
+}
@@ -0,0 +1,16 @@
+package com.omnik.projects.task_manager.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class DescriptionStoreStatsDTO {
+    private long liveBytes;
+    private long retainedBytes;
+
+    public DescriptionStoreStatsDTO(long liveBytes, long retainedBytes) {
+        this.liveBytes = liveBytes;
+        this.retainedBytes = retainedBytes;
+    }
+}
@@ -0,0 +1,23 @@
+package com.omnik.projects.task_manager.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReportCacheStatsDTO {
+    private int capacity;
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long coalesced;
+
+    public ReportCacheStatsDTO(int capacity, int size, long hits, long misses, long evictions) {
+        this.capacity = capacity;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+}
@@ -0,0 +1,24 @@
+package com.omnik.projects.task_manager.dto.response;
+
+import com.omnik.projects.task_manager.enums.reports.ReportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * The state of a submitted report job. {@code expiresAt} is set once the job has finished; after that
+ * moment its result is discarded.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class ReportJobDTO {
+    private String jobId;
+    private ReportJobStatus status;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Instant expiresAt;
+}
@@ -0,0 +1,19 @@
+package com.omnik.projects.task_manager.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of a sorted report. {@code nextCursor} is passed back to fetch the following page and is null
+ * on the last page.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class ReportPageDTO<T> {
+    private List<T> tasks;
+    private String nextCursor;
+}
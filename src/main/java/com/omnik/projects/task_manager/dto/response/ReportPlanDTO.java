@@ -0,0 +1,27 @@
+package com.omnik.projects.task_manager.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How a report filter was evaluated, returned when a report is requested with {@code explain=true}.
+ */
+@Getter
+@Setter
+public class ReportPlanDTO {
+    private String accessPath = "full-scan";
+    private Map<String, Integer> estimatedCardinalities = new LinkedHashMap<>();
+    private List<String> intersectedIndexes = new ArrayList<>();
+    private List<String> residualPredicates = new ArrayList<>();
+    private long totalTasks;
+    private int bitmapsCombined;
+    private String ordering;
+    private int parallelism;
+    private long rowsMatched;
+    private long snapshotVersion;
+}
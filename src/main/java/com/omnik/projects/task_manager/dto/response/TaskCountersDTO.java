@@ -0,0 +1,24 @@
+package com.omnik.projects.task_manager.dto.response;
+
+import com.omnik.projects.task_manager.enums.Category;
+import com.omnik.projects.task_manager.enums.TaskStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Getter
+@Setter
+public class TaskCountersDTO {
+    private int total;
+    private Map<TaskStatus, Integer> byStatus = new EnumMap<>(TaskStatus.class);
+    private Map<Category, Integer> byCategory = new EnumMap<>(Category.class);
+    private Map<Integer, Integer> byPriority = new TreeMap<>();
+    private Map<String, Integer> byOwner = new HashMap<>();
+    private int overdue;
+    private LocalDate overdueAsOf;
+}
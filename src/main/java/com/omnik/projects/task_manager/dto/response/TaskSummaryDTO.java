@@ -0,0 +1,97 @@
+package com.omnik.projects.task_manager.dto.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.enums.reports.TaskField;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A flat view of a task for report responses: the owner is written as its username and the dependencies as
+ * the names of the direct dependencies, so a row never pulls in other objects. Only the attributes in
+ * {@code fields} are written; every row of a report shares the same set.
+ * <p>
+ * Rows are written by {@link Serializer}, which writes the attributes straight from the task with
+ * pre-encoded field names instead of going through bean introspection, and only decodes the description
+ * when it is asked for.
+ */
+@Getter
+@AllArgsConstructor
+@JsonSerialize(using = TaskSummaryDTO.Serializer.class)
+public class TaskSummaryDTO {
+    private final Task task;
+    private final List<String> dependencies;
+    private final Set<TaskField> fields;
+
+    public static final class Serializer extends StdSerializer<TaskSummaryDTO> {
+        private static final SerializableString NAME = new SerializedString("name");
+        private static final SerializableString DESCRIPTION = new SerializedString("description");
+        private static final SerializableString PRIORITY = new SerializedString("priority");
+        private static final SerializableString STATUS = new SerializedString("status");
+        private static final SerializableString CATEGORY = new SerializedString("category");
+        private static final SerializableString DEADLINE = new SerializedString("deadline");
+        private static final SerializableString OWNER = new SerializedString("owner");
+        private static final SerializableString DEPENDENCIES = new SerializedString("dependencies");
+
+        public Serializer() {
+            super(TaskSummaryDTO.class);
+        }
+
+        @Override
+        public void serialize(TaskSummaryDTO summary, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            Task task = summary.task;
+            Set<TaskField> fields = summary.fields;
+            generator.writeStartObject();
+            if (fields.contains(TaskField.Name)) {
+                generator.writeFieldName(NAME);
+                generator.writeString(task.getName());
+            }
+            if (fields.contains(TaskField.Description)) {
+                generator.writeFieldName(DESCRIPTION);
+                generator.writeString(task.getDescription());
+            }
+            if (fields.contains(TaskField.Priority)) {
+                generator.writeFieldName(PRIORITY);
+                if (task.getPriority() == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(task.getPriority());
+                }
+            }
+            if (fields.contains(TaskField.Status)) {
+                generator.writeFieldName(STATUS);
+                generator.writeString(task.getStatus().name());
+            }
+            if (fields.contains(TaskField.Category)) {
+                generator.writeFieldName(CATEGORY);
+                generator.writeString(task.getCategory() == null ? null : task.getCategory().name());
+            }
+            if (fields.contains(TaskField.Deadline)) {
+                generator.writeFieldName(DEADLINE);
+                generator.writeString(task.getDeadline() == null ? null : task.getDeadline().toString());
+            }
+            if (fields.contains(TaskField.Owner)) {
+                generator.writeFieldName(OWNER);
+                generator.writeString(task.getOwner() == null ? null : task.getOwner().getUsername());
+            }
+            if (fields.contains(TaskField.Dependencies)) {
+                generator.writeFieldName(DEPENDENCIES);
+                generator.writeStartArray();
+                for (String dependency : summary.dependencies) {
+                    generator.writeString(dependency);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -1,29 +1,34 @@
 package com.omnik.projects.task_manager.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.omnik.projects.task_manager.enums.Category;
 import com.omnik.projects.task_manager.enums.TaskStatus;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
-import java.util.HashSet;
-import java.util.Set;
 
 @Getter
 @Setter
 public class Task {
+    public static final int NO_ID = -1;
+
+    @JsonIgnore
+    private int id = NO_ID;
     private String name;
-    private String description;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TaskDescription description;
     private Integer priority;
     private TaskStatus status = TaskStatus.Created;
     private Category category;
     private LocalDate deadline;
-    private Set<Task> dependsOn = new HashSet<>();
     private User owner;
 
     public Task(String name, String description, Integer priority, Category category, LocalDate deadline,User owner) {
         this.name = name;
-        this.description = description;
+        this.description = TaskDescription.inline(description);
         this.priority = priority;
         this.category = category;
         this.deadline = deadline;
@@ -32,10 +37,39 @@ public class Task {
 
     public Task(String name, String description,Category category, User owner) {
         this.name = name;
-        this.description = description;
+        this.description = TaskDescription.inline(description);
         this.category = category;
         this.owner = owner;
     }
 
+    /**
+     * Copies the current field values, including the id. The description handle is shared, not decoded.
+     */
+    public Task(Task source) {
+        this.id = source.id;
+        this.name = source.name;
+        this.description = source.description;
+        this.priority = source.priority;
+        this.status = source.status;
+        this.category = source.category;
+        this.deadline = source.deadline;
+        this.owner = source.owner;
+    }
+
+    /**
+     * Returns the description text, decoding it from the description store if the task has been stored.
+     */
+    public String getDescription() {
+        return description == null ? null : description.text();
+    }
+
+    @JsonIgnore
+    public TaskDescription getDescriptionHandle() {
+        return description;
+    }
+
+    public void setDescriptionHandle(TaskDescription description) {
+        this.description = description;
+    }
 
 }
@@ -0,0 +1,22 @@
+package com.omnik.projects.task_manager.entities;
+
+import com.omnik.projects.task_manager.enums.Category;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * The attributes of a task that can be changed after it has been created.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskAttributes {
+    private final Integer priority;
+    private final LocalDate deadline;
+    private final Category category;
+
+    public static TaskAttributes of(Task task) {
+        return new TaskAttributes(task.getPriority(), task.getDeadline(), task.getCategory());
+    }
+}
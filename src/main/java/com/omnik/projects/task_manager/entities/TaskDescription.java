@@ -0,0 +1,19 @@
+package com.omnik.projects.task_manager.entities;
+
+/**
+ * The description of a task. A new task holds its text on the heap; once the task is stored the text is
+ * moved to the DataStore's off-heap description store and the task keeps only a handle, which decodes the
+ * text again on every call.
+ */
+public interface TaskDescription {
+
+    String text();
+
+    default boolean isStored() {
+        return false;
+    }
+
+    static TaskDescription inline(String text) {
+        return text == null ? null : () -> text;
+    }
+}
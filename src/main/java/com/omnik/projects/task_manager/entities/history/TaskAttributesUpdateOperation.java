@@ -0,0 +1,29 @@
+package com.omnik.projects.task_manager.entities.history;
+
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.entities.TaskAttributes;
+import com.omnik.projects.task_manager.storage.DataStore;
+
+import java.util.Map;
+
+public class TaskAttributesUpdateOperation extends Operations {
+
+    private final Map<Task, TaskAttributes> previousAttributes;
+    private final Map<Task, TaskAttributes> updatedAttributes;
+
+    public TaskAttributesUpdateOperation(DataStore dataStore, Map<Task, TaskAttributes> previousAttributes, Map<Task, TaskAttributes> updatedAttributes) {
+        super(dataStore);
+        this.previousAttributes = previousAttributes;
+        this.updatedAttributes = updatedAttributes;
+    }
+
+    @Override
+    public void apply() {
+        dataStore.updateTaskAttributes(updatedAttributes);
+    }
+
+    @Override
+    public void revert() {
+        dataStore.updateTaskAttributes(previousAttributes);
+    }
+}
@@ -3,12 +3,19 @@ package com.omnik.projects.task_manager.entities.history;
 import com.omnik.projects.task_manager.entities.Task;
 import com.omnik.projects.task_manager.storage.DataStore;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 public class TaskCreationAndDeletionOperation extends Operations {
 
     private final Task task;
     private final boolean scheduleTask;
     private final boolean bufferTask;
     private final boolean isCreationOperation;
+    private List<Task> dependencies = Collections.emptyList();
+    private List<Task> dependents = Collections.emptyList();
 
     public TaskCreationAndDeletionOperation(DataStore dataStore, Task task, boolean scheduleTask, boolean bufferTask, boolean isCreationOperation) {
         super(dataStore);
@@ -38,6 +45,7 @@ public class TaskCreationAndDeletionOperation extends Operations {
 
     private void createTask(){
         dataStore.addNewUserTask(task);
+        restoreDependencies();
         if(scheduleTask) {
             dataStore.scheduleTask(task);
         } else if (bufferTask) {
@@ -45,7 +53,30 @@ public class TaskCreationAndDeletionOperation extends Operations {
         }
     }
 
+    /**
+     * Deleting a task drops its dependency edges, because its id is reused, so they are remembered here and
+     * put back when the task is re-created. Edges to tasks that have been deleted meanwhile are skipped.
+     */
     private void deleteTask(){
+        dependencies = dataStore.getDependencies(task);
+        dependents = dataStore.getDependents(task);
         dataStore.deleteTask(task);
     }
+
+    private void restoreDependencies(){
+        Set<Task> liveDependencies = new HashSet<>();
+        for (Task dependency : dependencies) {
+            if (dataStore.getTask(dependency.getName()) == dependency) {
+                liveDependencies.add(dependency);
+            }
+        }
+        if (!liveDependencies.isEmpty()) {
+            dataStore.addNewTaskDependencies(task, liveDependencies);
+        }
+        for (Task dependent : dependents) {
+            if (dataStore.getTask(dependent.getName()) == dependent) {
+                dataStore.addNewTaskDependencies(dependent, Collections.singleton(task));
+            }
+        }
+    }
 }
@@ -1,5 +1,41 @@
 package com.omnik.projects.task_manager.enums.reports;
 
+import com.omnik.projects.task_manager.entities.Task;
+
 public enum GroupBy {
-    Priority, Status, Category, Owner, Deadline
+    Priority, Status, Category, Owner, Deadline;
+
+    /**
+     * The group of the tasks that have no value for the grouping attribute.
+     */
+    public static final String NO_VALUE = "None";
+
+    /**
+     * Returns the group the task falls into in every report: the status or category, the owner's username,
+     * the priority or the deadline, or {@link #NO_VALUE} if the task has none.
+     */
+    public Object keyOf(Task task) {
+        Object key = attributeOf(task);
+        return key == null ? NO_VALUE : key;
+    }
+
+    /**
+     * Returns the value of the grouping attribute of the task, the owner as its username, or null if unset.
+     */
+    public Object attributeOf(Task task) {
+        switch (this) {
+            case Status:
+                return task.getStatus();
+            case Category:
+                return task.getCategory();
+            case Owner:
+                return task.getOwner() == null ? null : task.getOwner().getUsername();
+            case Priority:
+                return task.getPriority();
+            case Deadline:
+                return task.getDeadline();
+            default:
+                throw new IllegalArgumentException("Unsupported groupBy: " + this);
+        }
+    }
 }
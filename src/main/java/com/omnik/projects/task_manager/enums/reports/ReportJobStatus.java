@@ -0,0 +1,5 @@
+package com.omnik.projects.task_manager.enums.reports;
+
+public enum ReportJobStatus {
+    Queued, Running, Completed, Failed
+}
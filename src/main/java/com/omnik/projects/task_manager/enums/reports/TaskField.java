@@ -0,0 +1,5 @@
+package com.omnik.projects.task_manager.enums.reports;
+
+public enum TaskField {
+    Name, Description, Priority, Status, Category, Deadline, Owner, Dependencies
+}
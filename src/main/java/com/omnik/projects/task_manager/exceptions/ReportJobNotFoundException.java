@@ -0,0 +1,7 @@
+package com.omnik.projects.task_manager.exceptions;
+
+public class ReportJobNotFoundException extends RuntimeException {
+    public ReportJobNotFoundException(String jobId) {
+        super("No report job found for the passed jobId: " + jobId);
+    }
+}
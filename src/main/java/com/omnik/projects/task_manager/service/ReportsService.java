@@ -4,12 +4,34 @@ import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
 import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
 import com.omnik.projects.task_manager.enums.reports.GroupBy;
 import com.omnik.projects.task_manager.enums.reports.SortBy;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @Service
 public interface ReportsService {
 
     ApiResponseDTO<?> fetchReport(String requesterUsername,
-                                  ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy);
+                                  ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy, boolean explain, Integer limit, String cursor, List<String> fields);
+
+    /**
+     * Returns the entity tag of the report the same parameters would fetch right now in the given encoding, or
+     * null if the requester may not view reports.
+     */
+    String reportETag(String requesterUsername,
+                      ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy, boolean explain, Integer limit, String cursor, List<String> fields,
+                      MediaType mediaType);
+
+    ApiResponseDTO<StreamingResponseBody> streamReport(String requesterUsername, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy, List<String> fields);
+
+    ApiResponseDTO<?> countTasks(String requesterUsername, ReportsFilterRequestDTO filter, GroupBy groupBy);
+
+    ApiResponseDTO<?> fetchPivotReport(String requesterUsername, ReportsFilterRequestDTO filter, List<GroupBy> groupBy, SortBy sortBy, boolean countsOnly, List<String> fields);
+
+    ApiResponseDTO<?> getCounters(String requesterUsername);
+
+    ApiResponseDTO<?> getCacheStats(String requesterUsername);
 
 }
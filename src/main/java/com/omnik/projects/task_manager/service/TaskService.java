@@ -1,11 +1,15 @@
 package com.omnik.projects.task_manager.service;
 
 import com.omnik.projects.task_manager.dto.request.DependencyTasksRequestDTO;
+import com.omnik.projects.task_manager.dto.request.TaskPlanRequestDTO;
 import com.omnik.projects.task_manager.dto.request.TaskRequestDTO;
+import com.omnik.projects.task_manager.dto.request.TaskUpdateRequestDTO;
 import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
 import com.omnik.projects.task_manager.enums.TaskStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public interface TaskService {
 
@@ -19,9 +23,17 @@ public interface TaskService {
 
     ApiResponseDTO<?> bufferTask(String taskName);
 
+    ApiResponseDTO<?> planBacklog(String requesterUsername, List<TaskPlanRequestDTO> plans);
+
     ApiResponseDTO<?> processTask(String requesterUsername, String taskName, TaskStatus status);
 
+    ApiResponseDTO<?> updateTask(String requesterUsername, String taskName, TaskUpdateRequestDTO taskUpdateRequest);
+
+    ApiResponseDTO<?> updateTasks(String requesterUsername, List<TaskUpdateRequestDTO> taskUpdateRequests);
+
     ApiResponseDTO<?> markCompleted(String requesterUsername, String taskName);
 
     ApiResponseDTO<?> addDependencyTasks(String requesterUsername, String taskName, DependencyTasksRequestDTO dependencyTasks);
+
+    ApiResponseDTO<?> getDescriptionStats(String requesterUsername);
 }
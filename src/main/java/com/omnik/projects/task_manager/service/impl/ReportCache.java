@@ -0,0 +1,116 @@
+package com.omnik.projects.task_manager.service.impl;
+
+import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
+import com.omnik.projects.task_manager.dto.response.ReportCacheStatsDTO;
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+import com.omnik.projects.task_manager.enums.reports.SortBy;
+
+import java.util.*;
+
+/**
+ * A bounded LRU cache of report results, keyed by the filter, sortBy and groupBy of the request.
+ * <p>
+ * An entry holds the ids of the report's tasks per group, in report order, and the version stamp of the
+ * attributes the report depends on at the time it was computed. The caller turns the ids back into tasks,
+ * so a hit always returns the current values of the tasks; the stamp only has to guard which tasks are in
+ * the report and how they are grouped and ordered. An entry whose stamp is out of date is dropped on lookup.
+ */
+final class ReportCache {
+
+    private final int capacity;
+    private final LinkedHashMap<List<Object>, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    ReportCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<List<Object>, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                if (size() > ReportCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    static List<Object> key(ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy) {
+        return Arrays.asList(filter.getPriority(), filter.getStatus(), filter.getCategory(), filter.getDeadline(), filter.getOwner(),
+                filter.getPriorityFrom(), filter.getPriorityTo(), filter.getDeadlineFrom(), filter.getDeadlineTo(), sortBy, groupBy);
+    }
+
+    /**
+     * Returns the attributes whose changes can change the report.
+     */
+    static Set<GroupBy> dependsOn(ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy) {
+        Set<GroupBy> attributes = EnumSet.noneOf(GroupBy.class);
+        if (filter.getStatus() != null) {
+            attributes.add(GroupBy.Status);
+        }
+        if (filter.getCategory() != null) {
+            attributes.add(GroupBy.Category);
+        }
+        if (filter.getOwner() != null) {
+            attributes.add(GroupBy.Owner);
+        }
+        if (filter.getPriority() != null || filter.getPriorityFrom() != null || filter.getPriorityTo() != null) {
+            attributes.add(GroupBy.Priority);
+        }
+        if (filter.getDeadline() != null || filter.getDeadlineFrom() != null || filter.getDeadlineTo() != null) {
+            attributes.add(GroupBy.Deadline);
+        }
+        if (groupBy != null) {
+            attributes.add(groupBy);
+        }
+        if (sortBy != null) {
+            attributes.add(sortBy == SortBy.Priority ? GroupBy.Priority : GroupBy.Deadline);
+        }
+        return attributes;
+    }
+
+    /**
+     * Returns the cached task ids per group if the entry was computed at the given version.
+     */
+    synchronized Map<Object, int[]> get(List<Object> key, long version) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.version != version) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.groups;
+    }
+
+    synchronized void put(List<Object> key, long version, Map<?, List<Task>> report) {
+        Map<Object, int[]> groups = new LinkedHashMap<>();
+        report.forEach((group, tasks) -> {
+            int[] ids = new int[tasks.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = tasks.get(i).getId();
+            }
+            groups.put(group, ids);
+        });
+        entries.put(key, new Entry(version, groups));
+    }
+
+    synchronized ReportCacheStatsDTO stats() {
+        return new ReportCacheStatsDTO(capacity, entries.size(), hits, misses, evictions);
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final Map<Object, int[]> groups;
+
+        private Entry(long version, Map<Object, int[]> groups) {
+            this.version = version;
+            this.groups = groups;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.omnik.projects.task_manager.service.impl;
+
+import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
+import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
+import com.omnik.projects.task_manager.dto.response.ReportJobDTO;
+import com.omnik.projects.task_manager.enums.Permission;
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+import com.omnik.projects.task_manager.enums.reports.ReportJobStatus;
+import com.omnik.projects.task_manager.enums.reports.SortBy;
+import com.omnik.projects.task_manager.exceptions.PermissionDenialException;
+import com.omnik.projects.task_manager.exceptions.ReportJobNotFoundException;
+import com.omnik.projects.task_manager.exceptions.UserNotFoundException;
+import com.omnik.projects.task_manager.service.ReportJobsService;
+import com.omnik.projects.task_manager.service.ReportsService;
+import com.omnik.projects.task_manager.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs reports as background jobs so long reports do not hold a request thread.
+ * <p>
+ * Jobs run on their own fixed pool of low-priority threads behind a bounded queue; when the queue is full a
+ * submission is refused with {@code 429} instead of piling up, so heavy reports can never take more than
+ * {@code app.reports.jobs.threads} cores from the request threads serving task mutations. A job evaluates
+ * the report exactly like the reports endpoint, including its cache. Its result is kept for
+ * {@code app.reports.jobs.result-ttl-seconds} after it finishes; expired jobs are dropped whenever jobs are
+ * submitted or looked up.
+ */
+@Component
+@Slf4j
+public class ReportJobsServiceImpl implements ReportJobsService {
+
+    private final UserService userService;
+    private final ReportsService reportsService;
+    private final ThreadPoolExecutor executor;
+    private final Duration resultTtl;
+    private final ConcurrentHashMap<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    public ReportJobsServiceImpl(UserService userService, ReportsService reportsService,
+                                 @Value("${app.reports.jobs.threads:2}") int threads,
+                                 @Value("${app.reports.jobs.queue-size:16}") int queueSize,
+                                 @Value("${app.reports.jobs.result-ttl-seconds:600}") long resultTtlSeconds) {
+        this.userService = userService;
+        this.reportsService = reportsService;
+        this.resultTtl = Duration.ofSeconds(resultTtlSeconds);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        log.info("Report jobs run on {} threads with a queue of {}", threads, queueSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ApiResponseDTO<?> submitReportJob(String requesterUsername, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy) {
+        log.info("Submitting report job for user: {} with sortBy: {} and groupBy: {}", requesterUsername, sortBy, groupBy);
+        try {
+            log.debug("Validating user: {} for view all permission", requesterUsername);
+            userService.validateUser(requesterUsername, Permission.View_All);
+            removeExpiredJobs();
+
+            ReportJob job = new ReportJob(UUID.randomUUID().toString(), requesterUsername);
+            jobs.put(job.id, job);
+            try {
+                executor.execute(() -> run(job, filter, sortBy, groupBy));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                log.error("Report job queue full, rejecting job for user: {}", requesterUsername);
+                return new ApiResponseDTO<>(HttpStatus.TOO_MANY_REQUESTS, "Too many report jobs are queued, try again later", true);
+            }
+
+            log.info("Report job {} submitted successfully for user: {}", job.id, requesterUsername);
+            return new ApiResponseDTO<>(job.toDTO(), null, HttpStatus.ACCEPTED, "Report job submitted successfully", false);
+        } catch (PermissionDenialException e) {
+            log.error("Permission error while submitting report job for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(), true);
+        } catch (UserNotFoundException nfe) {
+            log.error("User not found while submitting report job: {}. Error: {}", requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(), true);
+        } catch (Exception e) {
+            log.error("Unexpected error while submitting report job for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
+        }
+    }
+
+    @Override
+    public ApiResponseDTO<?> getReportJob(String requesterUsername, String jobId) {
+        log.info("Fetching report job {} for user: {}", jobId, requesterUsername);
+        try {
+            ReportJob job = findJob(requesterUsername, jobId);
+
+            log.info("Report job {} fetched successfully, status: {}", jobId, job.status);
+            return new ApiResponseDTO<>(job.toDTO(), null, HttpStatus.OK, "Report job fetched successfully", false);
+        } catch (PermissionDenialException e) {
+            log.error("Permission error while fetching report job for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(), true);
+        } catch (UserNotFoundException | ReportJobNotFoundException nfe) {
+            log.error("Report job {} not found for user: {}. Error: {}", jobId, requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(), true);
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching report job for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
+        }
+    }
+
+    @Override
+    public ApiResponseDTO<?> getReportJobResult(String requesterUsername, String jobId) {
+        log.info("Fetching result of report job {} for user: {}", jobId, requesterUsername);
+        try {
+            ReportJob job = findJob(requesterUsername, jobId);
+
+            ApiResponseDTO<?> result = job.result;
+            if (result == null) {
+                log.debug("Report job {} has not finished, status: {}", jobId, job.status);
+                return new ApiResponseDTO<>(job.toDTO(), null, HttpStatus.ACCEPTED, "Report job has not finished yet", false);
+            }
+            log.info("Result of report job {} fetched for user: {}", jobId, requesterUsername);
+            return result;
+        } catch (PermissionDenialException e) {
+            log.error("Permission error while fetching report job result for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(), true);
+        } catch (UserNotFoundException | ReportJobNotFoundException nfe) {
+            log.error("Report job {} not found for user: {}. Error: {}", jobId, requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(), true);
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching report job result for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
+        }
+    }
+
+    private void run(ReportJob job, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy) {
+        log.info("Running report job {}", job.id);
+        job.startedAt = Instant.now();
+        job.status = ReportJobStatus.Running;
+        ApiResponseDTO<?> result;
+        try {
+            result = reportsService.fetchReport(job.requesterUsername, filter, sortBy, groupBy, false, null, null, null);
+        } catch (Exception e) {
+            log.error("Unexpected error while running report job {}. Error: {}", job.id, e.getMessage(), e);
+            result = new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
+        }
+        job.finishedAt = Instant.now();
+        job.expiresAt = job.finishedAt.plus(resultTtl);
+        job.result = result;
+        job.status = result.isError() ? ReportJobStatus.Failed : ReportJobStatus.Completed;
+        log.info("Report job {} finished with status: {}", job.id, job.status);
+    }
+
+    /**
+     * Jobs are only visible to the user who submitted them; anyone else gets the same answer as for an
+     * unknown id.
+     */
+    private ReportJob findJob(String requesterUsername, String jobId) {
+        log.debug("Validating user: {} for view all permission", requesterUsername);
+        userService.validateUser(requesterUsername, Permission.View_All);
+        removeExpiredJobs();
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.requesterUsername.equals(requesterUsername)) {
+            throw new ReportJobNotFoundException(jobId);
+        }
+        return job;
+    }
+
+    private void removeExpiredJobs() {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> job.expiresAt != null && job.expiresAt.isBefore(now));
+    }
+
+    private static final class ReportJob {
+        private final String id;
+        private final String requesterUsername;
+        private final Instant submittedAt = Instant.now();
+        private volatile ReportJobStatus status = ReportJobStatus.Queued;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile Instant expiresAt;
+        private volatile ApiResponseDTO<?> result;
+
+        private ReportJob(String id, String requesterUsername) {
+            this.id = id;
+            this.requesterUsername = requesterUsername;
+        }
+
+        private ReportJobDTO toDTO() {
+            return new ReportJobDTO(id, status, submittedAt, startedAt, finishedAt, expiresAt);
+        }
+    }
+}
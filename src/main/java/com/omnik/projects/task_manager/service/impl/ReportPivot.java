@@ -0,0 +1,128 @@
+package com.omnik.projects.task_manager.service.impl;
+
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.enums.Category;
+import com.omnik.projects.task_manager.enums.TaskStatus;
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A nested grouping of tasks, e.g. Owner, then Status, then Category, built in one pass over the tasks.
+ * <p>
+ * Every task walks down the tree once, one level per dimension. Status and category children sit in arrays
+ * indexed by the enum ordinal; the other dimensions use a hash map per node, the top one sized up front
+ * for the number of tasks.
+ * Only the leaves hold a count and, unless just counts are wanted, the list of their tasks.
+ * <p>
+ * In the rendered result the group keys are strings (the enum name, owner username, priority or ISO date);
+ * tasks with no value for a dimension are grouped under {@value GroupBy#NO_VALUE}, as in every report.
+ */
+final class ReportPivot {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final List<GroupBy> dimensions;
+    private final boolean countsOnly;
+    private final Node root;
+
+    ReportPivot(List<GroupBy> dimensions, boolean countsOnly, int expectedTasks) {
+        this.dimensions = dimensions;
+        this.countsOnly = countsOnly;
+        this.root = new Node(dimensions.get(0), expectedTasks);
+    }
+
+    void add(Task task) {
+        Node node = root;
+        for (int level = 0; level < dimensions.size(); level++) {
+            GroupBy next = level + 1 < dimensions.size() ? dimensions.get(level + 1) : null;
+            node = node.child(task, next);
+        }
+        node.count++;
+        if (!countsOnly) {
+            node.tasks.add(task);
+        }
+    }
+
+    /**
+     * Renders the tree as nested maps with ordered keys. A leaf is its task count, or its task list sorted
+     * with the given comparator and passed through {@code rows}.
+     */
+    Map<String, Object> render(Comparator<Task> order, Function<List<Task>, ?> rows) {
+        return root.renderChildren(order, rows);
+    }
+
+    private final class Node {
+        private final GroupBy dimension;
+        private Node[] byOrdinal;
+        private Map<Object, Node> byKey;
+        private Node noValue;
+
+        private int count;
+        private List<Task> tasks;
+
+        private Node(GroupBy dimension, int expectedKeys) {
+            this.dimension = dimension;
+            if (dimension == null) {
+                tasks = countsOnly ? null : new ArrayList<>();
+            } else if (dimension == GroupBy.Status) {
+                byOrdinal = new Node[STATUSES.length];
+            } else if (dimension == GroupBy.Category) {
+                byOrdinal = new Node[CATEGORIES.length];
+            } else {
+                byKey = new HashMap<>(Math.max(16, Math.min(expectedKeys, 1 << 12) * 4 / 3 + 1));
+            }
+        }
+
+        private Node child(Task task, GroupBy childDimension) {
+            Object key = dimension.attributeOf(task);
+            if (key == null) {
+                if (noValue == null) {
+                    noValue = new Node(childDimension, 0);
+                }
+                return noValue;
+            }
+            if (byOrdinal != null) {
+                int ordinal = ((Enum<?>) key).ordinal();
+                if (byOrdinal[ordinal] == null) {
+                    byOrdinal[ordinal] = new Node(childDimension, 0);
+                }
+                return byOrdinal[ordinal];
+            }
+            return byKey.computeIfAbsent(key, value -> new Node(childDimension, 0));
+        }
+
+        private Object render(Comparator<Task> order, Function<List<Task>, ?> rows) {
+            if (dimension == null) {
+                if (countsOnly) {
+                    return count;
+                }
+                if (order != null) {
+                    tasks.sort(order);
+                }
+                return rows.apply(tasks);
+            }
+            return renderChildren(order, rows);
+        }
+
+        private Map<String, Object> renderChildren(Comparator<Task> order, Function<List<Task>, ?> rows) {
+            Map<String, Object> rendered = new LinkedHashMap<>();
+            if (byOrdinal != null) {
+                Enum<?>[] values = dimension == GroupBy.Status ? STATUSES : CATEGORIES;
+                for (int ordinal = 0; ordinal < byOrdinal.length; ordinal++) {
+                    if (byOrdinal[ordinal] != null) {
+                        rendered.put(values[ordinal].name(), byOrdinal[ordinal].render(order, rows));
+                    }
+                }
+            } else {
+                new TreeMap<Object, Node>(byKey).forEach((key, child) -> rendered.put(String.valueOf(key), child.render(order, rows)));
+            }
+            if (noValue != null) {
+                rendered.put(GroupBy.NO_VALUE, noValue.render(order, rows));
+            }
+            return rendered;
+        }
+    }
+}
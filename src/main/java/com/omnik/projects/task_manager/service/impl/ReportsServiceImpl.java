@@ -1,90 +1,109 @@
 package com.omnik.projects.task_manager.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
 import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
+import com.omnik.projects.task_manager.dto.response.ReportCacheStatsDTO;
+import com.omnik.projects.task_manager.dto.response.ReportPageDTO;
+import com.omnik.projects.task_manager.dto.response.ReportPlanDTO;
+import com.omnik.projects.task_manager.dto.response.TaskCountersDTO;
+import com.omnik.projects.task_manager.dto.response.TaskSummaryDTO;
 import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.enums.Category;
 import com.omnik.projects.task_manager.enums.Permission;
+import com.omnik.projects.task_manager.enums.TaskStatus;
 import com.omnik.projects.task_manager.enums.reports.GroupBy;
 import com.omnik.projects.task_manager.enums.reports.SortBy;
+import com.omnik.projects.task_manager.enums.reports.TaskField;
+import com.omnik.projects.task_manager.exceptions.IllegalOperationException;
 import com.omnik.projects.task_manager.exceptions.PermissionDenialException;
 import com.omnik.projects.task_manager.exceptions.UserNotFoundException;
 import com.omnik.projects.task_manager.service.ReportsService;
 import com.omnik.projects.task_manager.service.UserService;
 import com.omnik.projects.task_manager.storage.DataStore;
+import com.omnik.projects.task_manager.storage.MatchedTasks;
+import com.omnik.projects.task_manager.storage.TaskOrderIndex;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class ReportsServiceImpl implements ReportsService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_BATCH_SIZE = 500;
+
     private final UserService userService;
     private final DataStore dataStore;
+    private final ObjectWriter rowWriter;
+    private final ReportCache reportCache;
+    private final SingleFlight<List<Object>, Map<?, List<Task>>> reportFlights = new SingleFlight<>();
+    private final String eTagEpoch = Long.toHexString(System.currentTimeMillis());
 
-    public ReportsServiceImpl(UserService userService, DataStore dataStore) {
+    public ReportsServiceImpl(UserService userService, DataStore dataStore, ObjectMapper objectMapper,
+                              @Value("${app.reports.cache.size:256}") int cacheSize) {
         this.userService = userService;
         this.dataStore = dataStore;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.reportCache = new ReportCache(cacheSize);
     }
 
     @Override
-    public ApiResponseDTO<?> fetchReport(String requesterUsername, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy) {
-        log.info("Fetching report for user: {} with sortBy: {} and groupBy: {}", requesterUsername, sortBy, groupBy);
+    public ApiResponseDTO<?> fetchReport(String requesterUsername, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy, boolean explain, Integer limit, String cursor, List<String> fields) {
+        log.info("Fetching report for user: {} with sortBy: {}, groupBy: {}, explain: {} and limit: {}", requesterUsername, sortBy, groupBy, explain, limit);
         try {
             log.debug("Validating user: {} for view all permission", requesterUsername);
             userService.validateUser(requesterUsername, Permission.View_All);
 
-            log.debug("Filtering tasks based on provided filter");
-            List<Task> filteredTasks = dataStore.filterBy(filter);
-
-            Map<?, List<Task>> map = new HashMap<>();
-            if (groupBy != null) {
-                log.debug("Grouping tasks by: {}", groupBy);
-                switch (groupBy) {
-                    case Owner: {
-                        map = filteredTasks.stream().collect(Collectors.groupingBy(Task::getOwner));
-                        break;
-                    }
-                    case Status: {
-                        map = filteredTasks.stream().collect(Collectors.groupingBy(Task::getStatus));
-                        break;
-                    }
-                    case Priority: {
-                        map = filteredTasks.stream().collect(Collectors.groupingBy(Task::getPriority));
-                        break;
-                    }
-                    case Category: {
-                        map = filteredTasks.stream().collect(Collectors.groupingBy(Task::getCategory));
-                        break;
-                    }
-                    case Deadline: {
-                        map = filteredTasks.stream().collect(Collectors.groupingBy(Task::getDeadline));
-                        break;
-                    }
+            Set<TaskField> taskFields = taskFields(fields);
+            ReportPlanDTO plan = explain ? new ReportPlanDTO() : null;
+            Object map;
+            if (limit != null || cursor != null) {
+                if (limit == null || limit < 1 || limit > MAX_PAGE_SIZE) {
+                    throw new IllegalOperationException("A paged report needs a limit between 1 and " + MAX_PAGE_SIZE);
+                } else if (sortBy == null) {
+                    throw new IllegalOperationException("A paged report needs a sortBy");
+                } else if (groupBy != null) {
+                    throw new IllegalOperationException("A paged report cannot be grouped");
                 }
+                TaskOrderIndex.SortKey after = cursor == null ? null : TaskOrderIndex.SortKey.decode(cursor);
+                log.debug("Fetching a page of {} tasks sorted by: {}", limit, sortBy);
+                ReportPageDTO<Task> page = dataStore.pageBy(filter, sortBy, limit, after, plan);
+                map = new ReportPageDTO<>(project(page.getTasks(), taskFields), page.getNextCursor());
+            } else if (explain) {
+                map = project(evaluate(filter, sortBy, groupBy, plan), taskFields);
             } else {
-                log.debug("No grouping applied, adding all tasks to map");
-                map.put(null, filteredTasks);
+                map = project(cachedReport(filter, sortBy, groupBy), taskFields);
             }
 
-            if (sortBy != null) {
-                log.debug("Sorting tasks by: {}", sortBy);
-                Comparator<Task> customComparator = sortBy.equals(SortBy.Priority)
-                        ? Comparator.comparing(Task::getPriority, Comparator.nullsLast(Comparator.naturalOrder()))
-                        : Comparator.comparing(Task::getDeadline, Comparator.nullsLast(Comparator.naturalOrder()));
-                map.forEach((key, taskList) -> {
-                    log.trace("Sorting task list for key: {}", key);
-                    taskList.sort(customComparator);
-                });
+            if (explain) {
+                log.debug("Attaching plan to report: {}", plan.getAccessPath());
+                Map<String, Object> explained = new LinkedHashMap<>();
+                explained.put("report", map);
+                explained.put("plan", plan);
+                log.info("Report fetched successfully for user: {}", requesterUsername);
+                return new ApiResponseDTO<>(explained, null, HttpStatus.OK, "Reports fetched successfully", false);
             }
 
             log.info("Report fetched successfully for user: {}", requesterUsername);
             return new ApiResponseDTO<>(map, null, HttpStatus.OK, "Reports fetched successfully", false);
-        } catch (PermissionDenialException e) {
-            log.error("Permission error while fetching report for user: {}. Error: {}", requesterUsername, e.getMessage());
+        } catch (PermissionDenialException | IllegalOperationException e) {
+            log.error("Invalid report request for user: {}. Error: {}", requesterUsername, e.getMessage());
             return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(), true);
         } catch (UserNotFoundException nfe) {
             log.error("User not found while fetching report: {}. Error: {}", requesterUsername, nfe.getMessage());
@@ -94,4 +113,367 @@ public class ReportsServiceImpl implements ReportsService {
             return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The tag covers the parameters, the encoding and the version of the snapshot, which every mutation of a
+     * task, user or dependency bumps, so two equal tags mean byte-identical reports. The startup time is part of the tag because the
+     * version starts over on a restart. Reading the version is a volatile read; the filter is not evaluated.
+     * <p>
+     * The tag is taken before the report is computed. If a mutation slips in between, the client gets a
+     * newer body under an older tag and simply downloads the report again next time.
+     */
+    @Override
+    public String reportETag(String requesterUsername, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy, boolean explain, Integer limit, String cursor, List<String> fields,
+                             MediaType mediaType) {
+        try {
+            userService.validateUser(requesterUsername, Permission.View_All);
+        } catch (Exception e) {
+            log.debug("No report ETag for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return null;
+        }
+        List<Object> parameters = new ArrayList<>(ReportCache.key(filter, sortBy, groupBy));
+        parameters.add(explain);
+        parameters.add(limit);
+        parameters.add(cursor);
+        parameters.add(fields);
+        parameters.add(mediaType);
+        String parametersHash = DigestUtils.md5DigestAsHex(parameters.toString().getBytes(StandardCharsets.UTF_8));
+        long version = dataStore.getSnapshot().getVersion();
+        log.debug("Report ETag at snapshot version {} for parameters {}", version, parameters);
+        return "\"" + eTagEpoch + "-" + Long.toHexString(version) + "-" + parametersHash + "\"";
+    }
+
+    /**
+     * Returns a body that writes the report as newline-delimited JSON: with a groupBy, a
+     * {@code {"group": ..., "count": ...}} line opens each group and is followed by its task lines. As in
+     * every report, tasks without a value for the grouping attribute come last, under
+     * {@value GroupBy#NO_VALUE}.
+     * <p>
+     * Nothing is collected up front. The group keys and counts come from the index bitmaps, and the tasks of
+     * each group are read in keyset pages of {@value #STREAM_BATCH_SIZE}, each page written and flushed before
+     * the next one is read. Memory stays at one page whatever the size of the report. Each page is
+     * consistent on its own, but a concurrent change can show up between two pages. Unsorted reports are
+     * streamed in priority order.
+     */
+    @Override
+    public ApiResponseDTO<StreamingResponseBody> streamReport(String requesterUsername, ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy, List<String> fields) {
+        log.info("Streaming report for user: {} with sortBy: {} and groupBy: {}", requesterUsername, sortBy, groupBy);
+        try {
+            log.debug("Validating user: {} for view all permission", requesterUsername);
+            userService.validateUser(requesterUsername, Permission.View_All);
+
+            Set<TaskField> taskFields = taskFields(fields);
+            SortBy order = sortBy == null ? SortBy.Priority : sortBy;
+            StreamingResponseBody body = out -> {
+                JsonGenerator generator = rowWriter.getFactory().createGenerator(out).setRootValueSeparator(null);
+                try {
+                    if (groupBy == null) {
+                        streamRows(generator, filter, order, taskFields, task -> true);
+                    } else {
+                        Map<Object, Integer> groups = dataStore.countBy(filter, groupBy);
+                        log.debug("Streaming {} groups by: {}", groups.size(), groupBy);
+                        for (Map.Entry<Object, Integer> group : groups.entrySet()) {
+                            generator.writeStartObject();
+                            generator.writeObjectField("group", group.getKey());
+                            generator.writeNumberField("count", group.getValue());
+                            generator.writeEndObject();
+                            generator.writeRaw('\n');
+                            if (GroupBy.NO_VALUE.equals(group.getKey())) {
+                                // No index holds the tasks without a value, so page through them all and skip the rest.
+                                streamRows(generator, filter, order, taskFields, task -> groupBy.attributeOf(task) == null);
+                            } else {
+                                streamRows(generator, pinned(filter, groupBy, group.getKey()), order, taskFields, task -> true);
+                            }
+                        }
+                    }
+                } catch (Exception e) {
+                    log.error("Error while streaming report for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+                    generator.writeStartObject();
+                    generator.writeStringField("error", e.getMessage());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+                generator.close();
+                log.info("Report streamed successfully for user: {}", requesterUsername);
+            };
+            return new ApiResponseDTO<>(body, null, HttpStatus.OK, "Reports streamed successfully", false);
+        } catch (PermissionDenialException | IllegalOperationException e) {
+            log.error("Invalid stream report request for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(), true);
+        } catch (UserNotFoundException nfe) {
+            log.error("User not found while streaming report: {}. Error: {}", requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(), true);
+        } catch (Exception e) {
+            log.error("Unexpected error while streaming report for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
+        }
+    }
+
+    @Override
+    public ApiResponseDTO<?> countTasks(String requesterUsername, ReportsFilterRequestDTO filter, GroupBy groupBy) {
+        log.info("Counting tasks for user: {} with groupBy: {}", requesterUsername, groupBy);
+        try {
+            log.debug("Validating user: {} for view all permission", requesterUsername);
+            userService.validateUser(requesterUsername, Permission.View_All);
+
+            Object counts;
+            if (groupBy != null) {
+                log.debug("Counting tasks grouped by: {}", groupBy);
+                counts = dataStore.countBy(filter, groupBy);
+            } else {
+                counts = dataStore.countBy(filter);
+            }
+
+            log.info("Task counts fetched successfully for user: {}", requesterUsername);
+            return new ApiResponseDTO<>(counts, null, HttpStatus.OK, "Task counts fetched successfully", false);
+        } catch (PermissionDenialException e) {
+            log.error("Permission error while counting tasks for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(), true);
+        } catch (UserNotFoundException nfe) {
+            log.error("User not found while counting tasks: {}. Error: {}", requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(), true);
+        } catch (Exception e) {
+            log.error("Unexpected error while counting tasks for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
+        }
+    }
+
+    @Override
+    public ApiResponseDTO<?> fetchPivotReport(String requesterUsername, ReportsFilterRequestDTO filter, List<GroupBy> groupBy, SortBy sortBy, boolean countsOnly, List<String> fields) {
+        log.info("Fetching pivot report for user: {} with groupBy: {}, sortBy: {} and countsOnly: {}", requesterUsername, groupBy, sortBy, countsOnly);
+        try {
+            log.debug("Validating user: {} for view all permission", requesterUsername);
+            userService.validateUser(requesterUsername, Permission.View_All);
+
+            if (groupBy == null || groupBy.isEmpty() || groupBy.contains(null)) {
+                throw new IllegalOperationException("At least one groupBy dimension is required for a pivot report");
+            }
+            if (EnumSet.copyOf(groupBy).size() != groupBy.size()) {
+                throw new IllegalOperationException("A groupBy dimension can only appear once in a pivot report");
+            }
+            Set<TaskField> taskFields = taskFields(fields);
+
+            log.debug("Filtering tasks based on provided filter");
+            List<Task> filteredTasks = dataStore.filterBy(filter);
+
+            log.debug("Pivoting {} tasks by: {}", filteredTasks.size(), groupBy);
+            ReportPivot pivot = new ReportPivot(groupBy, countsOnly, filteredTasks.size());
+            for (Task task : filteredTasks) {
+                pivot.add(task);
+            }
+            Map<String, Object> report = pivot.render(comparator(sortBy), rows -> project(rows, taskFields));
+
+            log.info("Pivot report fetched successfully for user: {}", requesterUsername);
+            return new ApiResponseDTO<>(report, null, HttpStatus.OK, "Reports fetched successfully", false);
+        } catch (PermissionDenialException | IllegalOperationException e) {
+            log.error("Invalid pivot report request for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(), true);
+        } catch (UserNotFoundException nfe) {
+            log.error("User not found while fetching pivot report: {}. Error: {}", requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(), true);
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching pivot report for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
+        }
+    }
+
+    @Override
+    public ApiResponseDTO<?> getCacheStats(String requesterUsername) {
+        log.info("Fetching report cache stats for user: {}", requesterUsername);
+        try {
+            log.debug("Validating user: {} for view all permission", requesterUsername);
+            userService.validateUser(requesterUsername, Permission.View_All);
+
+            ReportCacheStatsDTO stats = reportCache.stats();
+            stats.setCoalesced(reportFlights.getCoalesced());
+
+            log.info("Report cache stats fetched successfully for user: {}", requesterUsername);
+            return new ApiResponseDTO<>(stats, null, HttpStatus.OK, "Report cache stats fetched successfully", false);
+        } catch (PermissionDenialException e) {
+            log.error("Permission error while fetching report cache stats for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(), true);
+        } catch (UserNotFoundException nfe) {
+            log.error("User not found while fetching report cache stats: {}. Error: {}", requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(), true);
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching report cache stats for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
+        }
+    }
+
+    @Override
+    public ApiResponseDTO<?> getCounters(String requesterUsername) {
+        log.info("Fetching task counters for user: {}", requesterUsername);
+        try {
+            log.debug("Validating user: {} for view all permission", requesterUsername);
+            userService.validateUser(requesterUsername, Permission.View_All);
+
+            TaskCountersDTO counters = dataStore.getCounters();
+
+            log.info("Task counters fetched successfully for user: {}", requesterUsername);
+            return new ApiResponseDTO<>(counters, null, HttpStatus.OK, "Task counters fetched successfully", false);
+        } catch (PermissionDenialException e) {
+            log.error("Permission error while fetching task counters for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(), true);
+        } catch (UserNotFoundException nfe) {
+            log.error("User not found while fetching task counters: {}. Error: {}", requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(), true);
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching task counters for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
+        }
+    }
+
+    /**
+     * Serves the report from the cache if its entry is still current, and computes and caches it otherwise.
+     * The stamp is read before the report is computed, so a mutation that races with the computation leaves
+     * an entry that is already stale rather than one that looks current.
+     * <p>
+     * Identical requests that miss at the same stamp are coalesced: one of them computes the report and the
+     * others wait for it and share the result, which is only read from then on.
+     */
+    private Map<?, List<Task>> cachedReport(ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy) {
+        List<Object> key = ReportCache.key(filter, sortBy, groupBy);
+        Set<GroupBy> dependsOn = ReportCache.dependsOn(filter, sortBy, groupBy);
+        long version = dataStore.reportVersion(dependsOn);
+        Map<Object, int[]> groups = reportCache.get(key, version);
+        if (groups != null) {
+            Map<Object, List<Task>> report = dataStore.materialize(groups, dependsOn, version);
+            if (report != null) {
+                log.debug("Report served from the cache at version {}", version);
+                return report;
+            }
+        }
+        List<Object> flightKey = new ArrayList<>(key);
+        flightKey.add(version);
+        return reportFlights.execute(flightKey, () -> {
+            log.debug("Report not cached at version {}, computing it", version);
+            Map<?, List<Task>> report = evaluate(filter, sortBy, groupBy, null);
+            reportCache.put(key, version, report);
+            return report;
+        });
+    }
+
+    private Map<?, List<Task>> evaluate(ReportsFilterRequestDTO filter, SortBy sortBy, GroupBy groupBy, ReportPlanDTO plan) {
+        if (dataStore.isColumnar()) {
+            log.debug("Evaluating report over the task columns");
+            return dataStore.reportFromColumns(filter, groupBy, sortBy, plan);
+        }
+        log.debug("Filtering tasks based on provided filter");
+        MatchedTasks matched = dataStore.matchTasks(filter, plan);
+        if (dataStore.isParallelFor(matched)) {
+            log.debug("Evaluating report in parallel");
+            return dataStore.reportInParallel(matched, groupBy, sortBy, plan);
+        }
+        return groupAndSort(matched.toList(), groupBy, sortBy);
+    }
+
+    private Map<?, List<Task>> groupAndSort(List<Task> filteredTasks, GroupBy groupBy, SortBy sortBy) {
+        Map<?, List<Task>> map = new HashMap<>();
+        if (groupBy != null) {
+            log.debug("Grouping tasks by: {}", groupBy);
+            map = filteredTasks.stream().collect(Collectors.groupingBy(groupBy::keyOf));
+        } else {
+            log.debug("No grouping applied, adding all tasks to map");
+            map.put(null, filteredTasks);
+        }
+
+        if (sortBy != null) {
+            log.debug("Sorting tasks by: {}", sortBy);
+            Comparator<Task> customComparator = comparator(sortBy);
+            map.forEach((key, taskList) -> {
+                log.trace("Sorting task list for key: {}", key);
+                taskList.sort(customComparator);
+            });
+        }
+        return map;
+    }
+
+    private static Comparator<Task> comparator(SortBy sortBy) {
+        if (sortBy == null) {
+            return null;
+        }
+        return sortBy.equals(SortBy.Priority)
+                ? Comparator.comparing(Task::getPriority, Comparator.nullsLast(Comparator.naturalOrder()))
+                : Comparator.comparing(Task::getDeadline, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private void streamRows(JsonGenerator generator, ReportsFilterRequestDTO filter, SortBy order, Set<TaskField> fields,
+                            Predicate<Task> keep) throws IOException {
+        TaskOrderIndex.SortKey cursor = null;
+        do {
+            ReportPageDTO<Task> page = dataStore.pageBy(filter, order, STREAM_BATCH_SIZE, cursor, null);
+            List<Task> rows = page.getTasks().stream().filter(keep).collect(Collectors.toList());
+            for (TaskSummaryDTO row : project(rows, fields)) {
+                rowWriter.writeValue(generator, row);
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+            cursor = page.getNextCursor() == null ? null : TaskOrderIndex.SortKey.decode(page.getNextCursor());
+        } while (cursor != null);
+    }
+
+    /**
+     * Parses the requested task attributes, case-insensitively. No fields means all of them.
+     */
+    private static Set<TaskField> taskFields(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return EnumSet.allOf(TaskField.class);
+        }
+        Set<TaskField> taskFields = EnumSet.noneOf(TaskField.class);
+        for (String field : fields) {
+            TaskField taskField = Arrays.stream(TaskField.values())
+                    .filter(value -> value.name().equalsIgnoreCase(field.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalOperationException("Unknown task field: " + field));
+            taskFields.add(taskField);
+        }
+        return taskFields;
+    }
+
+    private Map<Object, List<TaskSummaryDTO>> project(Map<?, List<Task>> report, Set<TaskField> fields) {
+        Map<Object, List<TaskSummaryDTO>> projected = new LinkedHashMap<>();
+        report.forEach((key, rows) -> projected.put(key, project(rows, fields)));
+        return projected;
+    }
+
+    /**
+     * Wraps the tasks in summaries sharing one field set. Dependency names are only looked up if they are
+     * asked for, for all rows under a single read lock.
+     */
+    private List<TaskSummaryDTO> project(List<Task> rows, Set<TaskField> fields) {
+        List<List<String>> dependencies = fields.contains(TaskField.Dependencies) ? dataStore.getDependencyNames(rows) : null;
+        List<TaskSummaryDTO> projected = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            projected.add(new TaskSummaryDTO(rows.get(i), dependencies == null ? Collections.emptyList() : dependencies.get(i), fields));
+        }
+        return projected;
+    }
+
+    /**
+     * Copies the filter and pins the grouping attribute to one group's key.
+     */
+    private static ReportsFilterRequestDTO pinned(ReportsFilterRequestDTO filter, GroupBy groupBy, Object key) {
+        ReportsFilterRequestDTO pinned = new ReportsFilterRequestDTO(filter.getPriority(), filter.getStatus(), filter.getCategory(),
+                filter.getDeadline(), filter.getOwner(), filter.getPriorityFrom(), filter.getPriorityTo(),
+                filter.getDeadlineFrom(), filter.getDeadlineTo());
+        switch (groupBy) {
+            case Status:
+                pinned.setStatus((TaskStatus) key);
+                break;
+            case Category:
+                pinned.setCategory((Category) key);
+                break;
+            case Owner:
+                pinned.setOwner((String) key);
+                break;
+            case Priority:
+                pinned.setPriority((Integer) key);
+                break;
+            case Deadline:
+                pinned.setDeadline((LocalDate) key);
+                break;
+        }
+        return pinned;
+    }
+}
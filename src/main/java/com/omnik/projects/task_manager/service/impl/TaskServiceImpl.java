@@ -1,10 +1,15 @@
 package com.omnik.projects.task_manager.service.impl;
 
 import com.omnik.projects.task_manager.dto.request.DependencyTasksRequestDTO;
+import com.omnik.projects.task_manager.dto.request.TaskPlanRequestDTO;
 import com.omnik.projects.task_manager.dto.request.TaskRequestDTO;
+import com.omnik.projects.task_manager.dto.request.TaskUpdateRequestDTO;
 import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
+import com.omnik.projects.task_manager.dto.response.DescriptionStoreStatsDTO;
 import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.entities.TaskAttributes;
 import com.omnik.projects.task_manager.entities.User;
+import com.omnik.projects.task_manager.entities.history.TaskAttributesUpdateOperation;
 import com.omnik.projects.task_manager.entities.history.TaskCreationAndDeletionOperation;
 import com.omnik.projects.task_manager.enums.Permission;
 import com.omnik.projects.task_manager.enums.TaskStatus;
@@ -19,8 +24,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -37,6 +44,7 @@ public class TaskServiceImpl implements TaskService {
     @Override
     public ApiResponseDTO<?> createTask(String requesterUsername, boolean scheduleTask, boolean bufferTask, TaskRequestDTO taskCreationRequest) {
         log.info("Creating task for user: {}, scheduleTask: {}, bufferTask: {}", requesterUsername, scheduleTask, bufferTask);
+        Lock taskLock = dataStore.lockTask(taskCreationRequest.getName());
         try {
             log.debug("Validating user: {} for task creation permission", requesterUsername);
             User userFromDataStore = userService.validateUser(requesterUsername, Permission.Create_Task);
@@ -75,32 +83,36 @@ public class TaskServiceImpl implements TaskService {
         } catch (Exception e) {
             log.error("Unexpected error while creating task for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
             return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR,e.getMessage(),true);
+        } finally {
+            taskLock.unlock();
         }
     }
 
     @Override
     public ApiResponseDTO<?> deleteTask(String requesterUsername, String taskName) {
         log.info("Deleting task: {} for user: {}", taskName, requesterUsername);
+        Lock taskLock = dataStore.lockTask(taskName);
         try {
             log.debug("Validating user: {} for task deletion permission", requesterUsername);
             userService.validateUser(requesterUsername, Permission.Delete_Task);
 
             log.debug("Retrieving task: {} from data store", taskName);
-            Task taskFromDataStore = dataStore.getAllTasks().get(taskName);
+            Task taskFromDataStore = dataStore.getTask(taskName);
             if(taskFromDataStore == null) {
                 log.warn("Task not found: {}", taskName);
                 throw new TaskNotFoundException();
             }
 
             log.debug("Checking task status for scheduled/buffered");
-            boolean isTaskScheduled = dataStore.getAllScheduledTasks().contains(taskFromDataStore);
-            boolean isTaskBuffered = dataStore.getAllBufferedTasks().contains(taskFromDataStore);
+            boolean isTaskScheduled = dataStore.isTaskScheduled(taskFromDataStore);
+            boolean isTaskBuffered = dataStore.isTaskBuffered(taskFromDataStore);
 
             log.debug("Deleting task: {}", taskName);
-            dataStore.deleteTask(taskFromDataStore);
+            TaskCreationAndDeletionOperation deletion = new TaskCreationAndDeletionOperation(dataStore,taskFromDataStore,isTaskScheduled,isTaskBuffered,false);
+            deletion.apply();
 
             log.debug("Adding deletion operation to undo stack");
-            dataStore.addNewOperationToUndoStack(new TaskCreationAndDeletionOperation(dataStore,taskFromDataStore,isTaskScheduled,isTaskBuffered,false));
+            dataStore.addNewOperationToUndoStack(deletion);
 
             log.info("Task {} deleted successfully for user: {}", taskName, requesterUsername);
             return new ApiResponseDTO<>(HttpStatus.OK,"Task deleted successfully",false);
@@ -113,12 +125,15 @@ public class TaskServiceImpl implements TaskService {
         } catch (Exception e) {
             log.error("Unexpected error while deleting task: {}. Error: {}", taskName, e.getMessage(), e);
             return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR,e.getMessage(),true);
+        } finally {
+            taskLock.unlock();
         }
     }
 
     @Override
     public ApiResponseDTO<?> assignTask(String requesterUsername, String assigneeUsername, boolean scheduleTask, boolean bufferTask, TaskRequestDTO taskCreationRequest) {
         log.info("Assigning task to user: {} by requester: {}, scheduleTask: {}, bufferTask: {}", assigneeUsername, requesterUsername, scheduleTask, bufferTask);
+        Lock taskLock = dataStore.lockTask(taskCreationRequest.getName());
         try {
             log.debug("Validating requester: {} for task creation permission", requesterUsername);
             userService.validateUser(requesterUsername,Permission.Create_Task);
@@ -160,14 +175,17 @@ public class TaskServiceImpl implements TaskService {
         } catch (Exception e) {
             log.error("Unexpected error while assigning task to user: {}. Error: {}", assigneeUsername, e.getMessage(), e);
             return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR,e.getMessage(),true);
+        } finally {
+            taskLock.unlock();
         }
     }
 
     public ApiResponseDTO<?> scheduleTask(String taskName) {
         log.info("Scheduling task: {}", taskName);
+        Lock taskLock = dataStore.lockTask(taskName);
         try {
             log.debug("Retrieving task: {} from data store", taskName);
-            Task taskFromDataStore = dataStore.getAllTasks().get(taskName);
+            Task taskFromDataStore = dataStore.getTask(taskName);
             if(taskFromDataStore == null) {
                 log.warn("Task not found: {}", taskName);
                 throw new TaskNotFoundException();
@@ -187,15 +205,18 @@ public class TaskServiceImpl implements TaskService {
         } catch (Exception e) {
             log.error("Unexpected error while scheduling task: {}. Error: {}", taskName, e.getMessage(), e);
             return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR,e.getMessage(),true);
+        } finally {
+            taskLock.unlock();
         }
     }
 
     @Override
     public ApiResponseDTO<?> bufferTask(String taskName) {
         log.info("Buffering task: {}", taskName);
+        Lock taskLock = dataStore.lockTask(taskName);
         try {
             log.debug("Retrieving task: {} from data store", taskName);
-            Task taskFromDataStore = dataStore.getAllTasks().get(taskName);
+            Task taskFromDataStore = dataStore.getTask(taskName);
             if(taskFromDataStore == null) {
                 log.warn("Task not found: {}", taskName);
                 throw new TaskNotFoundException();
@@ -215,32 +236,60 @@ public class TaskServiceImpl implements TaskService {
         } catch (Exception e) {
             log.error("Unexpected error while buffering task: {}. Error: {}", taskName, e.getMessage(), e);
             return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR,e.getMessage(),true);
+        } finally {
+            taskLock.unlock();
+        }
+    }
+
+    @Override
+    public ApiResponseDTO<?> planBacklog(String requesterUsername, List<TaskPlanRequestDTO> plans) {
+        log.info("Planning {} backlog tasks for user: {}", plans.size(), requesterUsername);
+        List<Lock> taskLocks = dataStore.lockTasks(plans.stream().map(TaskPlanRequestDTO::getName).collect(Collectors.toList()));
+        try {
+            log.debug("Validating user: {} for task update permission", requesterUsername);
+            userService.validateUser(requesterUsername,Permission.Update_Task);
+
+            log.debug("Scheduling planned backlog tasks");
+            List<Task> scheduledTasks = dataStore.planBufferedTasks(plans);
+
+            log.info("{} backlog tasks planned successfully for user: {}", scheduledTasks.size(), requesterUsername);
+            return new ApiResponseDTO<>(HttpStatus.OK,scheduledTasks.size()+" backlog tasks scheduled successfully",false);
+        } catch (PermissionDenialException | IllegalOperationException e) {
+            log.error("Permission or operation error while planning backlog for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(),true);
+        } catch (UserNotFoundException | TaskNotFoundException nfe) {
+            log.error("User or task not found while planning backlog for user: {}. Error: {}", requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(),true);
+        } catch (Exception e) {
+            log.error("Unexpected error while planning backlog for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR,e.getMessage(),true);
+        } finally {
+            taskLocks.forEach(Lock::unlock);
         }
     }
 
     @Override
     public ApiResponseDTO<?> processTask(String requesterUsername, String taskName, TaskStatus status) {
         log.info("Processing task: {} for user: {} with status: {}", taskName, requesterUsername, status);
+        Lock taskLock = dataStore.lockTask(taskName);
         try {
             log.debug("Validating user: {} for task update permission", requesterUsername);
             userService.validateUser(requesterUsername,Permission.Update_Task);
 
             log.debug("Retrieving task: {} from data store", taskName);
-            Task taskFromDataStore = dataStore.getAllTasks().get(taskName);
+            Task taskFromDataStore = dataStore.getTask(taskName);
             if(taskFromDataStore == null) {
                 log.warn("Task not found: {}", taskName);
                 throw new TaskNotFoundException();
             }
 
-            log.debug("Processing task: {}", taskName);
-            Task taskToBeProcessed =dataStore.processTask(taskFromDataStore);
             if(!(status == TaskStatus.InProgress || status == TaskStatus.Completed)) {
                 log.warn("Invalid status update attempted for task: {}. Status: {}", taskName, status);
                 throw new IllegalOperationException("Task status can only be updated as 'InProgress' or 'Completed'");
             }
 
-            log.debug("Setting task status to: {}", status);
-            taskToBeProcessed.setStatus(status);
+            log.debug("Processing task: {} to status: {}", taskName, status);
+            dataStore.processTask(taskFromDataStore, status);
 
             log.info("Task {} processed successfully for user: {}", taskName, requesterUsername);
             return new ApiResponseDTO<>(HttpStatus.OK,"Task processed successfully",false);
@@ -253,18 +302,98 @@ public class TaskServiceImpl implements TaskService {
         } catch (Exception e) {
             log.error("Unexpected error while processing task: {}. Error: {}", taskName, e.getMessage(), e);
             return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR,e.getMessage(),true);
+        } finally {
+            taskLock.unlock();
+        }
+    }
+
+    @Override
+    public ApiResponseDTO<?> updateTask(String requesterUsername, String taskName, TaskUpdateRequestDTO taskUpdateRequest) {
+        log.info("Updating task: {} for user: {}", taskName, requesterUsername);
+        taskUpdateRequest.setName(taskName);
+        Lock taskLock = dataStore.lockTask(taskName);
+        try {
+            return updateTasks(requesterUsername, Collections.singletonList(taskUpdateRequest));
+        } finally {
+            taskLock.unlock();
+        }
+    }
+
+    @Override
+    public ApiResponseDTO<?> updateTasks(String requesterUsername, List<TaskUpdateRequestDTO> taskUpdateRequests) {
+        log.info("Updating {} tasks for user: {}", taskUpdateRequests.size(), requesterUsername);
+        List<Lock> taskLocks = dataStore.lockTasks(taskUpdateRequests.stream().map(TaskUpdateRequestDTO::getName).collect(Collectors.toList()));
+        try {
+            log.debug("Validating user: {} for task update permission", requesterUsername);
+            userService.validateUser(requesterUsername,Permission.Update_Task);
+
+            Map<Task, TaskAttributes> previousAttributes = new LinkedHashMap<>();
+            Map<Task, TaskAttributes> updatedAttributes = new LinkedHashMap<>();
+            for (TaskUpdateRequestDTO taskUpdateRequest : taskUpdateRequests) {
+                log.debug("Retrieving task: {} from data store", taskUpdateRequest.getName());
+                Task taskFromDataStore = dataStore.getTask(taskUpdateRequest.getName());
+                if(taskFromDataStore == null) {
+                    log.warn("Task not found: {}", taskUpdateRequest.getName());
+                    throw new TaskNotFoundException("No task found for the passed taskName: "+taskUpdateRequest.getName());
+                }
+                if(previousAttributes.containsKey(taskFromDataStore)) {
+                    log.warn("Duplicate task update detected: {}", taskUpdateRequest.getName());
+                    throw new IllegalOperationException("A task can only be updated once per request!");
+                }
+                if(taskFromDataStore.getStatus() == TaskStatus.Completed) {
+                    log.warn("Cannot update completed task: {}", taskUpdateRequest.getName());
+                    throw new IllegalOperationException("Completed tasks cannot be updated!");
+                }
+                if(taskFromDataStore.getStatus() == TaskStatus.Buffered && (taskUpdateRequest.getPriority() != null || taskUpdateRequest.getDeadline() != null)) {
+                    log.warn("Cannot set priority or deadline of buffered task: {}", taskUpdateRequest.getName());
+                    throw new IllegalOperationException("A buffered task gets its priority and deadline only when the backlog is planned!");
+                }
+                if(taskUpdateRequest.getDeadline() != null && taskUpdateRequest.getDeadline().isBefore(LocalDate.now())) {
+                    log.warn("Past deadline requested for task: {}", taskUpdateRequest.getName());
+                    throw new IllegalOperationException("Deadline cannot be a past Date!");
+                }
+
+                TaskAttributes current = TaskAttributes.of(taskFromDataStore);
+                previousAttributes.put(taskFromDataStore, current);
+                updatedAttributes.put(taskFromDataStore, new TaskAttributes(
+                        taskUpdateRequest.getPriority() != null ? taskUpdateRequest.getPriority() : current.getPriority(),
+                        taskUpdateRequest.getDeadline() != null ? taskUpdateRequest.getDeadline() : current.getDeadline(),
+                        taskUpdateRequest.getCategory() != null ? taskUpdateRequest.getCategory() : current.getCategory()));
+            }
+
+            log.debug("Applying attribute updates");
+            TaskAttributesUpdateOperation operation = new TaskAttributesUpdateOperation(dataStore, previousAttributes, updatedAttributes);
+            operation.apply();
+
+            log.debug("Adding update operation to undo stack");
+            dataStore.addNewOperationToUndoStack(operation);
+
+            log.info("{} tasks updated successfully for user: {}", updatedAttributes.size(), requesterUsername);
+            return new ApiResponseDTO<>(HttpStatus.OK,"Tasks updated successfully",false);
+        } catch (PermissionDenialException | IllegalOperationException e) {
+            log.error("Permission or operation error while updating tasks for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(),true);
+        } catch (UserNotFoundException | TaskNotFoundException nfe) {
+            log.error("User or task not found while updating tasks for user: {}. Error: {}", requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(),true);
+        } catch (Exception e) {
+            log.error("Unexpected error while updating tasks for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR,e.getMessage(),true);
+        } finally {
+            taskLocks.forEach(Lock::unlock);
         }
     }
 
     @Override
     public ApiResponseDTO<?> markCompleted(String requesterUsername, String taskName) {
         log.info("Marking task as completed: {} for user: {}", taskName, requesterUsername);
+        Lock taskLock = dataStore.lockTask(taskName);
         try {
             log.debug("Validating user: {} for task update permission", requesterUsername);
             userService.validateUser(requesterUsername,Permission.Update_Task);
 
             log.debug("Retrieving task: {} from data store", taskName);
-            Task taskFromDataStore = dataStore.getAllTasks().get(taskName);
+            Task taskFromDataStore = dataStore.getTask(taskName);
             if(taskFromDataStore == null) {
                 log.warn("Task not found: {}", taskName);
                 throw new TaskNotFoundException();
@@ -276,7 +405,7 @@ public class TaskServiceImpl implements TaskService {
             }
 
             log.debug("Setting task status to Completed");
-            taskFromDataStore.setStatus(TaskStatus.Completed);
+            dataStore.updateTaskStatus(taskFromDataStore, TaskStatus.Completed);
 
             log.info("Task {} marked as completed successfully for user: {}", taskName, requesterUsername);
             return new ApiResponseDTO<>(HttpStatus.OK,"Task marked as completed successfully",false);
@@ -289,18 +418,21 @@ public class TaskServiceImpl implements TaskService {
         } catch (Exception e) {
             log.error("Unexpected error while marking task completed: {}. Error: {}", taskName, e.getMessage(), e);
             return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR,e.getMessage(),true);
+        } finally {
+            taskLock.unlock();
         }
     }
 
     @Override
     public ApiResponseDTO<?> addDependencyTasks(String requesterUsername, String taskName, DependencyTasksRequestDTO dependencyTasks) {
         log.info("Adding dependencies to task: {} for user: {}", taskName, requesterUsername);
+        Lock taskLock = dataStore.lockTask(taskName);
         try {
             log.debug("Validating user: {} for task update permission", requesterUsername);
             userService.validateUser(requesterUsername,Permission.Update_Task);
 
             log.debug("Retrieving main task: {} from data store", taskName);
-            Task mainTask = dataStore.getAllTasks().get(taskName);
+            Task mainTask = dataStore.getTask(taskName);
             if(mainTask == null) {
                 log.warn("Main task not found: {}", taskName);
                 throw new TaskNotFoundException();
@@ -315,7 +447,7 @@ public class TaskServiceImpl implements TaskService {
             Set<Task> tasksFromDataStore = new HashSet<>();
             dependencyTasks.getDependencyTasks().forEach((tName) -> {
                 log.debug("Validating dependency task: {}", tName);
-                Task task =  dataStore.getAllTasks().get(tName);
+                Task task =  dataStore.getTask(tName);
                 if(task == null){
                     log.warn("Dependency task not found: {}", tName);
                     throw new TaskNotFoundException("No task found for the passed taskName: "+tName);
@@ -330,7 +462,6 @@ public class TaskServiceImpl implements TaskService {
             });
 
             log.debug("Adding dependencies to main task");
-            mainTask.getDependsOn().addAll(tasksFromDataStore);
             dataStore.addNewTaskDependencies(mainTask,tasksFromDataStore);
 
             log.info("Dependencies added successfully to task: {} for user: {}", taskName, requesterUsername);
@@ -344,6 +475,31 @@ public class TaskServiceImpl implements TaskService {
         } catch (Exception e) {
             log.error("Unexpected error while adding dependencies to task: {}. Error: {}", taskName, e.getMessage(), e);
             return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR,e.getMessage(),true);
+        } finally {
+            taskLock.unlock();
+        }
+    }
+
+    @Override
+    public ApiResponseDTO<?> getDescriptionStats(String requesterUsername) {
+        log.info("Fetching description store stats for user: {}", requesterUsername);
+        try {
+            log.debug("Validating user: {} for view all permission", requesterUsername);
+            userService.validateUser(requesterUsername, Permission.View_All);
+
+            DescriptionStoreStatsDTO stats = dataStore.getDescriptionStats();
+
+            log.info("Description store stats fetched successfully for user: {}", requesterUsername);
+            return new ApiResponseDTO<>(stats, null, HttpStatus.OK, "Description store stats fetched successfully", false);
+        } catch (PermissionDenialException e) {
+            log.error("Permission error while fetching description store stats for user: {}. Error: {}", requesterUsername, e.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.BAD_REQUEST, e.getMessage(), true);
+        } catch (UserNotFoundException nfe) {
+            log.error("User not found while fetching description store stats: {}. Error: {}", requesterUsername, nfe.getMessage());
+            return new ApiResponseDTO<>(HttpStatus.NOT_FOUND, nfe.getMessage(), true);
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching description store stats for user: {}. Error: {}", requesterUsername, e.getMessage(), e);
+            return new ApiResponseDTO<>(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), true);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,39 +1,87 @@
 package com.omnik.projects.task_manager.storage;
 
 import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
+import com.omnik.projects.task_manager.dto.request.TaskPlanRequestDTO;
+import com.omnik.projects.task_manager.dto.response.DescriptionStoreStatsDTO;
+import com.omnik.projects.task_manager.dto.response.ReportPageDTO;
+import com.omnik.projects.task_manager.dto.response.ReportPlanDTO;
+import com.omnik.projects.task_manager.dto.response.TaskCountersDTO;
 import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.entities.TaskAttributes;
+import com.omnik.projects.task_manager.entities.TaskDescription;
 import com.omnik.projects.task_manager.entities.User;
 import com.omnik.projects.task_manager.entities.history.Operations;
+import com.omnik.projects.task_manager.enums.Category;
 import com.omnik.projects.task_manager.enums.Permission;
 import com.omnik.projects.task_manager.enums.Role;
 import com.omnik.projects.task_manager.enums.TaskStatus;
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+import com.omnik.projects.task_manager.enums.reports.SortBy;
 import com.omnik.projects.task_manager.exceptions.IllegalOperationException;
 import com.omnik.projects.task_manager.exceptions.RedoStackEmptyException;
+import com.omnik.projects.task_manager.exceptions.TaskNotFoundException;
 import com.omnik.projects.task_manager.exceptions.UndoStackEmptyException;
 import com.omnik.projects.task_manager.exceptions.UserAlreadyExistsException;
+import com.omnik.projects.task_manager.storage.bitmap.CompressedBitmap;
+import com.omnik.projects.task_manager.storage.description.DescriptionStore;
+import com.omnik.projects.task_manager.storage.journal.FsyncPolicy;
+import com.omnik.projects.task_manager.storage.journal.Journal;
+import com.omnik.projects.task_manager.storage.journal.RecordReader;
+import com.omnik.projects.task_manager.storage.journal.RecordType;
+import com.omnik.projects.task_manager.storage.journal.RecordWriter;
+import com.omnik.projects.task_manager.storage.snapshot.DataSnapshot;
+import com.omnik.projects.task_manager.storage.snapshot.PersistentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * In-memory storage shared by all request threads.
+ * <p>
+ * Tasks live in a {@link TaskTable}; the indexes, schedule, buffer, dependency graph and undo/redo stacks
+ * are guarded by one {@link StampedLock}. Every mutation publishes a new {@link DataSnapshot} before it
+ * releases the write lock, and reports read their rows from that snapshot without holding the lock.
+ */
 @Component
 @Slf4j
 public class DataStore {
 
+    private static final int TASK_LOCK_STRIPES = 64;
+    private static final Role[] ROLES = Role.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Category[] CATEGORIES = Category.values();
+
     private final Map<String, User> userMap;
     private final EnumMap<Role, Set<Permission>> rolePermissions;
-    private final Map<String, Task> taskMap;
-    private final Map<User, List<Task>> userTasks;
-    private final TreeMap<Integer, HashSet<Task>> priorityGroupedTasks;
-    private final PriorityQueue<Task> scheduledTasks;
-    private final ArrayDeque<Task> bufferedTasks;
+    private final TaskTable taskTable;
+    private final TaskIndexes taskIndexes;
+    private final TaskCounters taskCounters;
+    private final TaskOrderIndex taskOrder;
+    private final ReportVersions reportVersions;
+    private final IndexedTaskHeap scheduledTasks;
+    private final LinkedHashSet<Task> bufferedTasks;
     private final ArrayDeque<Operations> undoStack;
     private final ArrayDeque<Operations> redoStack;
-    private final Map<Task, Set<Task>> dependentTasks;
+    private final DependencyGraph dependencyGraph;
+    private final DescriptionStore descriptionStore;
+
+    private final StampedLock lock;
+    private final StripedLock taskLocks;
 
     @Value("${app.admin.user.credentials.username}")
     private String username;
@@ -44,26 +92,64 @@ public class DataStore {
     @Value("${app.admin.user.credentials.lastname}")
     private String lastName;
 
+    @Value("${app.datastore.single-writer.enabled:false}")
+    private boolean singleWriterEnabled;
+
+    @Value("${app.datastore.single-writer.ring-buffer-size:1024}")
+    private int ringBufferSize;
+
+    @Value("${app.datastore.columnar.enabled:false}")
+    private boolean columnarEnabled;
+
+    @Value("${app.reports.parallel.threshold:0}")
+    private int parallelThreshold;
+
+    @Value("${app.reports.parallel.threads:0}")
+    private int parallelThreads;
+
+    @Value("${app.datastore.journal.enabled:false}")
+    private boolean journalEnabled;
+
+    @Value("${app.datastore.journal.path:data/datastore.journal}")
+    private String journalPath;
+
+    @Value("${app.datastore.journal.fsync:Always}")
+    private FsyncPolicy fsyncPolicy;
+
+    @Value("${app.datastore.journal.fsync-interval-ms:10}")
+    private long fsyncIntervalMillis;
+
+    private MutationPipeline mutationPipeline;
+
+    private Journal journal;
+
+    private final RecordWriter journalRecord = new RecordWriter();
+
+    private long journaledLsn;
+
+    private ForkJoinPool reportPool;
+
+    private TaskColumns taskColumns;
+
+    private volatile DataSnapshot snapshot = DataSnapshot.empty();
+
     public DataStore() {
         log.info("Initializing DataStore");
         this.undoStack = new ArrayDeque<>();
         this.redoStack = new ArrayDeque<>();
-        userMap = new HashMap<>();
+        this.lock = new StampedLock();
+        this.taskLocks = new StripedLock(TASK_LOCK_STRIPES);
+        userMap = new ConcurrentHashMap<>();
         rolePermissions = new EnumMap<>(Role.class);
-        userTasks = new HashMap<>();
-        taskMap = new HashMap<>();
-        dependentTasks = new HashMap<>();
-        priorityGroupedTasks = new TreeMap<>();
-        scheduledTasks = new PriorityQueue<>(
-                (t1, t2) -> {
-                    int result = Integer.compare(t1.getPriority(), t2.getPriority());
-                    if (result == 0) {
-                        return t1.getDeadline().compareTo(t2.getDeadline());
-                    }
-                    return result;
-                }
-        );
-        bufferedTasks = new ArrayDeque<>();
+        taskTable = new TaskTable();
+        dependencyGraph = new DependencyGraph();
+        descriptionStore = new DescriptionStore();
+        taskIndexes = new TaskIndexes();
+        taskCounters = new TaskCounters();
+        taskOrder = new TaskOrderIndex();
+        reportVersions = new ReportVersions();
+        scheduledTasks = new IndexedTaskHeap();
+        bufferedTasks = new LinkedHashSet<>();
 
         HashSet<Permission> adminPermissions = new HashSet<>(Arrays.asList(Permission.values()));
         rolePermissions.put(Role.Admin, adminPermissions);
@@ -74,8 +160,89 @@ public class DataStore {
         log.info("Creating initial admin user: {}", username);
         User firstAdminUser = new User(username, firstName, lastName);
         firstAdminUser.setRoles(new HashSet<>(Arrays.asList(Role.Admin)));
-        userMap.put(firstAdminUser.getUsername(), firstAdminUser);
+        write(() -> {
+            userMap.put(firstAdminUser.getUsername(), firstAdminUser);
+            snapshot = snapshot.withUser(firstAdminUser);
+        });
         log.debug("Admin user initialized successfully");
+        if (columnarEnabled) {
+            log.info("Columnar mode enabled, keeping report attributes in primitive columns");
+            taskColumns = new TaskColumns();
+        }
+        if (parallelThreshold > 0) {
+            int parallelism = parallelThreads > 0 ? parallelThreads : Runtime.getRuntime().availableProcessors();
+            log.info("Parallel reports enabled above {} matching tasks on {} threads", parallelThreshold, parallelism);
+            AtomicInteger threadCount = new AtomicInteger();
+            reportPool = new ForkJoinPool(parallelism, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("report-fork-join-" + threadCount.incrementAndGet());
+                return thread;
+            }, null, false);
+        }
+        if (journalEnabled) {
+            openJournal();
+        }
+        if (singleWriterEnabled) {
+            log.info("Single-writer mode enabled, routing mutations through the ring buffer");
+            mutationPipeline = new MutationPipeline(ringBufferSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reportPool != null) {
+            reportPool.shutdownNow();
+        }
+        if (mutationPipeline != null) {
+            mutationPipeline.shutdown();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void openJournal() {
+        log.info("Journal enabled at {} with fsync policy: {}", journalPath, fsyncPolicy);
+        try {
+            Journal opened = new Journal(Paths.get(journalPath), fsyncPolicy, fsyncIntervalMillis);
+            long stamp = lock.writeLock();
+            try {
+                opened.replay(this::replay);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            journal = opened;
+            log.info("DataStore rebuilt from the journal with {} users and {} tasks", userMap.size(), taskTable.size());
+        } catch (IOException e) {
+            log.error("Could not open the journal at {}. Error: {}", journalPath, e.getMessage(), e);
+            throw new IllegalStateException("Could not open the journal at " + journalPath, e);
+        }
+    }
+
+    /**
+     * Acquires the stripe lock for the given task name. Callers that read a task, validate it and then mutate
+     * it hold the stripe so two requests on the same task cannot interleave. The caller must release it in a
+     * finally block.
+     */
+    public Lock lockTask(String taskName) {
+        log.trace("Acquiring task lock for: {}", taskName);
+        return taskLocks.lock(taskName);
+    }
+
+    /**
+     * Acquires the stripe locks of all given task names in a fixed order. The caller must release every
+     * returned lock in a finally block.
+     */
+    public List<Lock> lockTasks(Collection<String> taskNames) {
+        log.trace("Acquiring task locks for: {}", taskNames);
+        return taskLocks.lockAll(taskNames);
+    }
+
+    /**
+     * Returns the latest published snapshot. It never changes, so it can be iterated without any locking.
+     */
+    public DataSnapshot getSnapshot() {
+        return snapshot;
     }
 
     public Map<String, User> getAllUsers() {
@@ -85,44 +252,119 @@ public class DataStore {
 
     public Collection<Task> getAllScheduledTasks() {
         log.debug("Retrieving all scheduled tasks");
-        return Collections.unmodifiableCollection(scheduledTasks);
+        return read(() -> Collections.unmodifiableCollection(scheduledTasks.toList()));
+    }
+
+    public boolean isTaskScheduled(Task task) {
+        return read(() -> scheduledTasks.contains(task));
     }
 
     public Collection<Task> getAllBufferedTasks() {
         log.debug("Retrieving all buffered tasks");
-        return Collections.unmodifiableCollection(bufferedTasks);
+        return read(() -> Collections.unmodifiableCollection(new ArrayList<>(bufferedTasks)));
     }
 
-    public Map<String, Task> getAllTasks() {
-        log.debug("Retrieving all tasks");
-        return Collections.unmodifiableMap(taskMap);
+    public boolean isTaskBuffered(Task task) {
+        return read(() -> bufferedTasks.contains(task));
+    }
+
+    public Task getTask(String taskName) {
+        log.debug("Retrieving task: {}", taskName);
+        return taskTable.get(taskName);
+    }
+
+    /**
+     * Returns the live tasks the given task depends on.
+     */
+    public List<Task> getDependencies(Task task) {
+        return read(() -> {
+            List<Task> dependencies = new ArrayList<>();
+            if (taskTable.contains(task)) {
+                dependencyGraph.forEachDependency(task.getId(), id -> dependencies.add(taskTable.get(id)));
+            }
+            return dependencies;
+        });
+    }
+
+    /**
+     * Returns the names of the direct dependencies of each task, in the order of the tasks, under a single read
+     * lock. The tasks may be snapshot copies; a task that is no longer live gets an empty list.
+     */
+    public List<List<String>> getDependencyNames(List<Task> tasks) {
+        return read(() -> {
+            List<List<String>> names = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                Task live = task.getId() == Task.NO_ID ? null : taskTable.get(task.getName());
+                if (live == null || live.getId() != task.getId()) {
+                    names.add(Collections.emptyList());
+                    continue;
+                }
+                List<String> dependencies = new ArrayList<>();
+                dependencyGraph.forEachDependency(live.getId(), id -> dependencies.add(taskTable.get(id).getName()));
+                names.add(dependencies);
+            }
+            return names;
+        });
+    }
+
+    /**
+     * Returns the live tasks that depend on the given task.
+     */
+    public List<Task> getDependents(Task task) {
+        return read(() -> {
+            List<Task> dependents = new ArrayList<>();
+            if (taskTable.contains(task)) {
+                dependencyGraph.forEachDependent(task.getId(), id -> dependents.add(taskTable.get(id)));
+            }
+            return dependents;
+        });
     }
 
     public void addNewUserTask(Task task) {
         log.info("Adding new task: {}", task.getName());
-        if (taskMap.putIfAbsent(task.getName(), task) == null) {
-            log.debug("Task {} added to taskMap", task.getName());
-            if (task.getOwner() != null) {
-                userTasks.putIfAbsent(task.getOwner(), new ArrayList<>());
-                userTasks.get(task.getOwner()).add(task);
-                log.debug("Task {} associated with owner: {}", task.getName(), task.getOwner().getUsername());
+        write(() -> {
+            if (taskTable.get(task.getName()) != null) {
+                log.error("Task already exists: {}", task.getName());
+                throw new IllegalOperationException("A Task already exists with the passed task name");
             }
-            if (task.getPriority() != null) {
-                priorityGroupedTasks.putIfAbsent(task.getPriority(), new HashSet<>());
-                priorityGroupedTasks.get(task.getPriority()).add(task);
-                log.debug("Task {} added to priority group: {}", task.getName(), task.getPriority());
+            if (journal != null) {
+                journal(journalRecord.reset(RecordType.TaskAdded)
+                        .writeString(task.getName())
+                        .writeString(task.getDescription())
+                        .writeInteger(task.getPriority())
+                        .writeEnum(task.getStatus())
+                        .writeEnum(task.getCategory())
+                        .writeDate(task.getDeadline())
+                        .writeString(task.getOwner() == null ? null : task.getOwner().getUsername()));
             }
-        } else {
-            log.error("Task already exists: {}", task.getName());
-            throw new IllegalOperationException("A Task already exists with the passed task name");
+            insert(task);
+        });
+    }
+
+    private boolean insert(Task task) {
+        if (!taskTable.insert(task)) {
+            return false;
         }
+        log.debug("Task {} added to the task table with id {}", task.getName(), task.getId());
+        TaskDescription description = task.getDescriptionHandle();
+        if (description != null && !description.isStored()) {
+            task.setDescriptionHandle(descriptionStore.store(description.text()));
+            log.debug("Description of task {} moved off-heap, {} bytes live in the description store", task.getName(), descriptionStore.getLiveBytes());
+        }
+        index(task);
+        reportVersions.tasksChanged();
+        log.debug("Task {} added to the owner, status, category, priority and deadline indexes", task.getName());
+        snapshot = snapshot.withTask(task);
+        return true;
     }
 
     public void addNewOperationToUndoStack(Operations operation) {
         if (operation != null) {
             log.debug("Adding operation to undo stack");
-            undoStack.push(operation);
-            redoStack.clear();
+            write(() -> {
+                undoStack.push(operation);
+                redoStack.clear();
+            });
             log.debug("Redo stack cleared");
         }
     }
@@ -130,117 +372,260 @@ public class DataStore {
     public void addNewOperationToRedoStack(Operations operation) {
         if (operation != null) {
             log.debug("Adding operation to redo stack");
-            redoStack.push(operation);
+            write(() -> redoStack.push(operation));
         }
     }
 
     public Operations popOperationToUndo() {
         log.debug("Popping operation from undo stack");
-        try {
-            return undoStack.pop();
-        } catch (NoSuchElementException e) {
-            log.error("Undo stack is empty");
-            throw new UndoStackEmptyException();
-        }
+        return write(() -> {
+            try {
+                return undoStack.pop();
+            } catch (NoSuchElementException e) {
+                log.error("Undo stack is empty");
+                throw new UndoStackEmptyException();
+            }
+        });
     }
 
     public Operations popOperationToRedo() {
         log.debug("Popping operation from redo stack");
-        try {
-            return redoStack.pop();
-        } catch (NoSuchElementException e) {
-            log.error("Redo stack is empty");
-            throw new RedoStackEmptyException();
-        }
+        return write(() -> {
+            try {
+                return redoStack.pop();
+            } catch (NoSuchElementException e) {
+                log.error("Redo stack is empty");
+                throw new RedoStackEmptyException();
+            }
+        });
     }
 
     public void deleteTask(Task incomingTask) {
         log.info("Deleting task: {}", incomingTask.getName());
-        if (taskMap.get(incomingTask.getName()) != null && taskMap.get(incomingTask.getName()).equals(incomingTask)) {
-            if (incomingTask.getOwner() != null) {
-                List<Task> taskMapping = userTasks.get(incomingTask.getOwner());
-                if (taskMapping == null) {
-                    log.error("No task mapping found for owner: {}", incomingTask.getOwner().getUsername());
-                    throw new RuntimeException("Internal Server Error! the task has owner defined but there is no corresponding mapping of it in the userTasks");
+        write(() -> {
+            if (taskTable.contains(incomingTask)) {
+                if (journal != null) {
+                    journal(journalRecord.reset(RecordType.TaskDeleted).writeString(incomingTask.getName()));
                 }
-                taskMapping.remove(incomingTask);
-                log.debug("Task {} removed from owner's task list", incomingTask.getName());
+                remove(incomingTask);
+                log.info("Task {} deleted successfully", incomingTask.getName());
+            } else {
+                log.error("Task not found or mismatch: {}", incomingTask.getName());
+                throw new RuntimeException("Internal Server Error!");
             }
-            HashSet<Task> tasksForThisPriority = priorityGroupedTasks.get(incomingTask.getPriority());
-            if (tasksForThisPriority != null) {
-                tasksForThisPriority.remove(incomingTask);
-                log.debug("Task {} removed from priority group: {}", incomingTask.getName(), incomingTask.getPriority());
-            }
-            scheduledTasks.remove(incomingTask);
-            bufferedTasks.remove(incomingTask);
-            taskMap.remove(incomingTask.getName());
-            log.info("Task {} deleted successfully", incomingTask.getName());
-        } else {
-            log.error("Task not found or mismatch: {}", incomingTask.getName());
-            throw new RuntimeException("Internal Server Error!");
-        }
+        });
+    }
+
+    private void remove(Task task) {
+        unindex(task);
+        reportVersions.tasksChanged();
+        log.debug("Task {} removed from the secondary indexes", task.getName());
+        scheduledTasks.remove(task);
+        bufferedTasks.remove(task);
+        dependencyGraph.detach(task.getId());
+        taskTable.remove(task);
+        snapshot = snapshot.withoutTask(task.getName());
     }
 
     public void scheduleTask(Task incomingTask) {
         log.info("Scheduling task: {}", incomingTask.getName());
-        if (taskMap.get(incomingTask.getName()) != null && taskMap.get(incomingTask.getName()).equals(incomingTask)) {
-            if (!incomingTask.getStatus().equals(TaskStatus.Created)) {
-                log.error("Invalid status for scheduling task: {}", incomingTask.getStatus());
-                throw new IllegalOperationException("Invalid Request!. Only Tasks with status 'Created' can be scheduled.");
-            } else if (!dependenciesCompleted(incomingTask)) {
-                log.error("Dependencies not completed for task: {}", incomingTask.getName());
-                throw new IllegalOperationException("A task cannot be scheduled until all its dependency tasks are completed.");
-            } else if (incomingTask.getDeadline() == null || incomingTask.getPriority() == null) {
-                log.error("Missing deadline or priority for task: {}", incomingTask.getName());
-                throw new IllegalOperationException("Deadline and priority is required for a task to be scheduled!");
-            } else if (incomingTask.getDeadline().isBefore(LocalDate.now())) {
-                log.error("Past deadline for task: {}", incomingTask.getName());
-                throw new IllegalOperationException("Deadline cannot be a past Date!");
-            } else if (incomingTask.getOwner() == null) {
-                log.error("No owner specified for task: {}", incomingTask.getName());
-                throw new IllegalOperationException("Owner is mandatory for a task to be scheduled");
-            }
-            incomingTask.setStatus(TaskStatus.Scheduled);
-            scheduledTasks.add(incomingTask);
-            log.info("Task {} scheduled successfully", incomingTask.getName());
-        } else {
-            log.error("Task not found: {}", incomingTask.getName());
-            throw new RuntimeException("Internal Server Error");
-        }
+        write(() -> {
+            if (taskTable.contains(incomingTask)) {
+                if (!incomingTask.getStatus().equals(TaskStatus.Created)) {
+                    log.error("Invalid status for scheduling task: {}", incomingTask.getStatus());
+                    throw new IllegalOperationException("Invalid Request!. Only Tasks with status 'Created' can be scheduled.");
+                } else if (!dependenciesCompleted(incomingTask)) {
+                    log.error("Dependencies not completed for task: {}", incomingTask.getName());
+                    throw new IllegalOperationException("A task cannot be scheduled until all its dependency tasks are completed.");
+                } else if (incomingTask.getDeadline() == null || incomingTask.getPriority() == null) {
+                    log.error("Missing deadline or priority for task: {}", incomingTask.getName());
+                    throw new IllegalOperationException("Deadline and priority is required for a task to be scheduled!");
+                } else if (incomingTask.getDeadline().isBefore(LocalDate.now())) {
+                    log.error("Past deadline for task: {}", incomingTask.getName());
+                    throw new IllegalOperationException("Deadline cannot be a past Date!");
+                } else if (incomingTask.getOwner() == null) {
+                    log.error("No owner specified for task: {}", incomingTask.getName());
+                    throw new IllegalOperationException("Owner is mandatory for a task to be scheduled");
+                }
+                if (journal != null) {
+                    journal(journalRecord.reset(RecordType.TaskScheduled).writeString(incomingTask.getName()));
+                }
+                schedule(incomingTask);
+                log.info("Task {} scheduled successfully", incomingTask.getName());
+            } else {
+                log.error("Task not found: {}", incomingTask.getName());
+                throw new RuntimeException("Internal Server Error");
+            }
+        });
+    }
+
+    private void schedule(Task task) {
+        changeIndexedStatus(task, TaskStatus.Scheduled);
+        scheduledTasks.add(task);
+        snapshot = snapshot.withTask(task);
     }
 
     private boolean dependenciesCompleted(Task task) {
         log.debug("Checking dependencies for task: {}", task.getName());
-        boolean completed = task.getDependsOn().isEmpty() || task.getDependsOn().stream().allMatch(t -> t.getStatus() == TaskStatus.Completed);
-        log.debug("Dependencies completed: {}", completed);
-        return completed;
+        boolean[] completed = {true};
+        dependencyGraph.forEachDependency(task.getId(), id -> completed[0] &= taskTable.get(id).getStatus() == TaskStatus.Completed);
+        log.debug("Dependencies completed: {}", completed[0]);
+        return completed[0];
     }
 
     public void bufferTask(Task incomingTask) {
         log.info("Buffering task: {}", incomingTask.getName());
-        if (taskMap.get(incomingTask.getName()) != null && taskMap.get(incomingTask.getName()).equals(incomingTask)) {
-            if (incomingTask.getStatus().ordinal() >= TaskStatus.Scheduled.ordinal()) {
-                log.error("Task already scheduled: {}", incomingTask.getName());
-                throw new IllegalOperationException("The task is already scheduled!");
-            } else if (incomingTask.getStatus().equals(TaskStatus.Buffered)) {
-                log.error("Task already buffered: {}", incomingTask.getName());
-                throw new IllegalOperationException("The task is already buffered. Please plan it further!");
-            } else if (incomingTask.getPriority() != null || incomingTask.getDeadline() != null) {
-                log.error("Buffered task has priority or deadline: {}", incomingTask.getName());
-                throw new IllegalOperationException("The buffered task can not have a priority or a deadline! If it has, consider scheduling it.");
-            }
-            incomingTask.setStatus(TaskStatus.Buffered);
-            bufferedTasks.add(incomingTask);
-            log.info("Task {} buffered successfully", incomingTask.getName());
-        } else {
-            log.error("Task not found: {}", incomingTask.getName());
-            throw new RuntimeException("Internal Server Error");
+        write(() -> {
+            if (taskTable.contains(incomingTask)) {
+                if (incomingTask.getStatus().ordinal() >= TaskStatus.Scheduled.ordinal()) {
+                    log.error("Task already scheduled: {}", incomingTask.getName());
+                    throw new IllegalOperationException("The task is already scheduled!");
+                } else if (incomingTask.getStatus().equals(TaskStatus.Buffered)) {
+                    log.error("Task already buffered: {}", incomingTask.getName());
+                    throw new IllegalOperationException("The task is already buffered. Please plan it further!");
+                } else if (incomingTask.getPriority() != null || incomingTask.getDeadline() != null) {
+                    log.error("Buffered task has priority or deadline: {}", incomingTask.getName());
+                    throw new IllegalOperationException("The buffered task can not have a priority or a deadline! If it has, consider scheduling it.");
+                }
+                if (journal != null) {
+                    journal(journalRecord.reset(RecordType.TaskBuffered).writeString(incomingTask.getName()));
+                }
+                buffer(incomingTask);
+                log.info("Task {} buffered successfully", incomingTask.getName());
+            } else {
+                log.error("Task not found: {}", incomingTask.getName());
+                throw new RuntimeException("Internal Server Error");
+            }
+        });
+    }
+
+    private void buffer(Task task) {
+        changeIndexedStatus(task, TaskStatus.Buffered);
+        bufferedTasks.add(task);
+        snapshot = snapshot.withTask(task);
+    }
+
+    /**
+     * Moves a batch of buffered tasks to the schedule in one step. Every plan is validated before anything is
+     * changed, so either all tasks are scheduled or none is, and the schedule is built for the whole batch
+     * at once instead of task by task.
+     */
+    public List<Task> planBufferedTasks(List<TaskPlanRequestDTO> plans) {
+        log.info("Planning {} buffered tasks", plans.size());
+        return write(() -> {
+            Map<Task, TaskPlanRequestDTO> plannedTasks = new LinkedHashMap<>();
+            for (TaskPlanRequestDTO plan : plans) {
+                Task task = taskTable.get(plan.getName());
+                if (task == null) {
+                    log.error("Task not found: {}", plan.getName());
+                    throw new TaskNotFoundException("No task found for the passed taskName: " + plan.getName());
+                } else if (!bufferedTasks.contains(task)) {
+                    log.error("Task is not buffered: {}", plan.getName());
+                    throw new IllegalOperationException("The task " + plan.getName() + " is not in the backlog!");
+                } else if (plan.getDeadline() == null || plan.getPriority() == null) {
+                    log.error("Missing deadline or priority in plan for task: {}", plan.getName());
+                    throw new IllegalOperationException("Deadline and priority is required for a task to be scheduled!");
+                } else if (plan.getDeadline().isBefore(LocalDate.now())) {
+                    log.error("Past deadline in plan for task: {}", plan.getName());
+                    throw new IllegalOperationException("Deadline cannot be a past Date!");
+                } else if (task.getOwner() == null) {
+                    log.error("No owner specified for task: {}", plan.getName());
+                    throw new IllegalOperationException("Owner is mandatory for a task to be scheduled");
+                } else if (!dependenciesCompleted(task)) {
+                    log.error("Dependencies not completed for task: {}", plan.getName());
+                    throw new IllegalOperationException("A task cannot be scheduled until all its dependency tasks are completed.");
+                }
+                if (plannedTasks.put(task, plan) != null) {
+                    log.error("Duplicate task in plan: {}", plan.getName());
+                    throw new IllegalOperationException("A task can only be planned once per request!");
+                }
+            }
+
+            if (journal != null) {
+                journalRecord.reset(RecordType.TasksPlanned).writeCount(plannedTasks.size());
+                plannedTasks.forEach((task, plan) -> journalRecord.writeString(task.getName())
+                        .writeInteger(plan.getPriority())
+                        .writeDate(plan.getDeadline()));
+                journal(journalRecord);
+            }
+            plannedTasks.forEach((task, plan) -> plan(task, plan.getPriority(), plan.getDeadline()));
+            scheduledTasks.addAll(plannedTasks.keySet());
+            log.info("{} buffered tasks scheduled successfully", plannedTasks.size());
+            return new ArrayList<>(plannedTasks.keySet());
+        });
+    }
+
+    /**
+     * Takes a buffered task out of the buffer with its planned priority and deadline. The caller adds it to
+     * the schedule.
+     */
+    private void plan(Task task, Integer priority, LocalDate deadline) {
+        bufferedTasks.remove(task);
+        attributeChanging(GroupBy.Priority, task.getPriority(), priority);
+        attributeChanging(GroupBy.Deadline, task.getDeadline(), deadline);
+        attributeChanging(GroupBy.Status, task.getStatus(), TaskStatus.Scheduled);
+        unindex(task);
+        task.setPriority(priority);
+        task.setDeadline(deadline);
+        task.setStatus(TaskStatus.Scheduled);
+        index(task);
+        snapshot = snapshot.withTask(task);
+    }
+
+    /**
+     * Sets the priority, deadline and category of each task to exactly the given values. A scheduled task is
+     * re-sifted in place and only the index buckets it leaves and joins are touched. All updates are
+     * checked first and applied under one write lock.
+     */
+    public void updateTaskAttributes(Map<Task, TaskAttributes> updates) {
+        log.info("Updating attributes of {} tasks", updates.size());
+        write(() -> {
+            updates.forEach((task, attributes) -> {
+                if (!taskTable.contains(task)) {
+                    log.error("Task not found or mismatch: {}", task.getName());
+                    throw new RuntimeException("Internal Server Error!");
+                }
+                if (scheduledTasks.contains(task) && (attributes.getPriority() == null || attributes.getDeadline() == null)) {
+                    log.error("Missing deadline or priority for scheduled task: {}", task.getName());
+                    throw new IllegalOperationException("A scheduled task must keep its deadline and priority!");
+                }
+            });
+
+            if (journal != null) {
+                journalRecord.reset(RecordType.TaskAttributesUpdated).writeCount(updates.size());
+                updates.forEach((task, attributes) -> journalRecord.writeString(task.getName())
+                        .writeInteger(attributes.getPriority())
+                        .writeDate(attributes.getDeadline())
+                        .writeEnum(attributes.getCategory()));
+                journal(journalRecord);
+            }
+            updates.forEach((task, attributes) -> updateAttributes(task, attributes.getPriority(), attributes.getDeadline(), attributes.getCategory()));
+            log.info("Attributes of {} tasks updated successfully", updates.size());
+        });
+    }
+
+    private void updateAttributes(Task task, Integer priority, LocalDate deadline, Category category) {
+        attributeChanging(GroupBy.Priority, task.getPriority(), priority);
+        attributeChanging(GroupBy.Deadline, task.getDeadline(), deadline);
+        attributeChanging(GroupBy.Category, task.getCategory(), category);
+        unindex(task);
+        task.setPriority(priority);
+        task.setDeadline(deadline);
+        task.setCategory(category);
+        index(task);
+        if (scheduledTasks.update(task)) {
+            log.debug("Task {} re-sifted in the schedule", task.getName());
         }
+        snapshot = snapshot.withTask(task);
     }
 
     public Set<Task> getTasksByPriority(Integer priority) {
         log.debug("Retrieving tasks for priority: {}", priority);
-        return Collections.unmodifiableSet(priorityGroupedTasks.getOrDefault(priority, new HashSet<>()));
+        PersistentHashMap<String, Task> group = snapshot.getPriorityGroupedTasks().get(priority);
+        if (group == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(group.values().collect(Collectors.toSet()));
     }
 
     public Map<Role, Set<Permission>> getAllRolePermissions() {
@@ -250,42 +635,626 @@ public class DataStore {
 
     public void addNewUser(User user) {
         log.info("Adding new user: {}", user.getUsername());
-        if (userMap.putIfAbsent(user.getUsername(), user) != null) {
-            log.error("User already exists: {}", user.getUsername());
-            throw new UserAlreadyExistsException();
-        }
+        write(() -> {
+            if (userMap.containsKey(user.getUsername())) {
+                log.error("User already exists: {}", user.getUsername());
+                throw new UserAlreadyExistsException();
+            }
+            if (journal != null) {
+                Set<Role> roles = user.getRoles() == null ? Collections.emptySet() : user.getRoles();
+                journalRecord.reset(RecordType.UserAdded)
+                        .writeString(user.getUsername())
+                        .writeString(user.getFirstName())
+                        .writeString(user.getLastName())
+                        .writeCount(roles.size());
+                roles.forEach(journalRecord::writeEnum);
+                journal(journalRecord);
+            }
+            userMap.put(user.getUsername(), user);
+            snapshot = snapshot.withUser(user);
+        });
         log.info("User {} added successfully", user.getUsername());
     }
 
-    public Task processTask(Task incomingTask) {
-        log.info("Processing task: {}", incomingTask.getName());
-        if (scheduledTasks.peek() != null && scheduledTasks.peek().equals(incomingTask)) {
-            Task processedTask = scheduledTasks.remove();
-            log.info("Task {} processed successfully", incomingTask.getName());
-            return processedTask;
-        } else {
-            log.error("Invalid task for processing: {}", incomingTask.getName());
-            throw new IllegalOperationException("Invalid request! Only high-priority tasks with immediate deadlines from the scheduled list can be processed.");
-        }
+    /**
+     * Takes the task off the top of the schedule and moves it to the given status in one step, so the task is
+     * never out of the schedule while still marked as scheduled.
+     */
+    public Task processTask(Task incomingTask, TaskStatus status) {
+        log.info("Processing task: {} to status: {}", incomingTask.getName(), status);
+        return write(() -> {
+            if (scheduledTasks.peek() != null && scheduledTasks.peek().equals(incomingTask)) {
+                if (journal != null) {
+                    journal(journalRecord.reset(RecordType.TaskProcessed).writeString(incomingTask.getName()).writeEnum(status));
+                }
+                Task processedTask = scheduledTasks.peek();
+                process(processedTask, status);
+                log.info("Task {} processed successfully", incomingTask.getName());
+                return processedTask;
+            } else {
+                log.error("Invalid task for processing: {}", incomingTask.getName());
+                throw new IllegalOperationException("Invalid request! Only high-priority tasks with immediate deadlines from the scheduled list can be processed.");
+            }
+        });
+    }
+
+    private void process(Task task, TaskStatus status) {
+        scheduledTasks.remove(task);
+        changeIndexedStatus(task, status);
+        snapshot = snapshot.withTask(task);
+    }
+
+    public void updateTaskStatus(Task task, TaskStatus status) {
+        log.info("Updating status of task: {} to {}", task.getName(), status);
+        write(() -> {
+            if (!taskTable.contains(task)) {
+                log.error("Task not found or mismatch: {}", task.getName());
+                throw new RuntimeException("Internal Server Error!");
+            }
+            if (journal != null) {
+                journal(journalRecord.reset(RecordType.TaskStatusChanged).writeString(task.getName()).writeEnum(status));
+            }
+            changeIndexedStatus(task, status);
+            snapshot = snapshot.withTask(task);
+        });
     }
 
     public void addNewTaskDependencies(Task mainTask, Set<Task> dependencies) {
         log.info("Adding dependencies to task: {}", mainTask.getName());
-        dependentTasks.putIfAbsent(mainTask, new HashSet<>());
-        dependentTasks.get(mainTask).addAll(dependencies);
+        write(() -> {
+            if (!taskTable.contains(mainTask)) {
+                log.error("Task not found or mismatch: {}", mainTask.getName());
+                throw new RuntimeException("Internal Server Error!");
+            }
+            if (journal != null) {
+                journalRecord.reset(RecordType.TaskDependenciesAdded).writeString(mainTask.getName()).writeCount(dependencies.size());
+                dependencies.forEach(dependency -> journalRecord.writeString(dependency.getName()));
+                journal(journalRecord);
+            }
+            dependencies.forEach(dependency -> dependencyGraph.addEdge(mainTask.getId(), dependency.getId()));
+            snapshot = snapshot.withNextVersion();
+        });
         log.debug("Dependencies added: {}", dependencies.stream().map(Task::getName).collect(Collectors.toList()));
     }
 
     public List<Task> filterBy(ReportsFilterRequestDTO filter) {
-        log.info("Filtering tasks with provided filter");
-        List<Task> filteredTasks = taskMap.values().stream().filter((task) -> {
-            if (filter.getPriority() != null && !filter.getPriority().equals(task.getPriority())) return false;
-            if (filter.getCategory() != null && !filter.getCategory().equals(task.getCategory())) return false;
-            if (filter.getStatus() != null && !filter.getStatus().equals(task.getStatus())) return false;
-            if (filter.getDeadline() != null && !filter.getDeadline().equals(task.getDeadline())) return false;
-            return filter.getOwner() == null || filter.getOwner().equals(task.getOwner().getUsername());
-        }).collect(Collectors.toList());
+        return filterBy(filter, null);
+    }
+
+    /**
+     * Filters the tasks of one snapshot and, if a plan is passed, records how the filter was evaluated. The
+     * returned tasks are the snapshot's frozen copies.
+     */
+    public List<Task> filterBy(ReportsFilterRequestDTO filter, ReportPlanDTO plan) {
+        List<Task> filteredTasks = matchTasks(filter, plan).toList();
         log.debug("Filtered {} tasks", filteredTasks.size());
         return filteredTasks;
     }
-}
\ No newline at end of file
+
+    /**
+     * Finds the tasks matching the filter and, if a plan is passed, records how the filter was evaluated.
+     * <p>
+     * Every attribute the filter pins maps to one index bitmap. The bitmaps are AND-ed smallest first, stopping
+     * as soon as the intersection is empty. The indexes are read and the snapshot is captured under the same
+     * read lock, so both describe the same state; only the names of the matching tasks are copied before the
+     * lock is released.
+     */
+    public MatchedTasks matchTasks(ReportsFilterRequestDTO filter, ReportPlanDTO plan) {
+        log.info("Filtering tasks with provided filter");
+        MatchedTasks matched;
+        long stamp = lock.readLock();
+        try {
+            List<TaskIndexes.AccessPath> accessPaths = taskIndexes.accessPaths(filter);
+            if (accessPaths.isEmpty()) {
+                log.debug("No indexed attribute pinned, matching all {} tasks", snapshot.getTasks().size());
+                matched = new MatchedTasks(snapshot, null);
+            } else {
+                CompressedBitmap matching = intersect(accessPaths, plan);
+                log.debug("Copying the names of {} tasks from the index bitmaps", matching.getCardinality());
+                matched = new MatchedTasks(snapshot, names(matching));
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        if (plan != null) {
+            plan.setTotalTasks(matched.getSnapshot().getTasks().size());
+            plan.setRowsMatched(matched.size());
+            plan.setSnapshotVersion(matched.getSnapshot().getVersion());
+        }
+        return matched;
+    }
+
+    /**
+     * Copies the names of the tasks in the bitmap, in id order. Must be called under the lock.
+     */
+    private String[] names(CompressedBitmap ids) {
+        String[] names = new String[ids.getCardinality()];
+        int[] next = {0};
+        ids.forEach(id -> names[next[0]++] = taskTable.get(id).getName());
+        return names;
+    }
+
+    private String[] names(int[] ids, int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = taskTable.get(ids[i]).getName();
+        }
+        return names;
+    }
+
+    /**
+     * Counts the tasks matching the filter from the index bitmaps alone. No task is read.
+     */
+    public int countBy(ReportsFilterRequestDTO filter) {
+        log.info("Counting tasks with provided filter");
+        return read(() -> matchingTasks(filter).getCardinality());
+    }
+
+    /**
+     * Counts the tasks matching the filter per value of one attribute from the index bitmaps alone.
+     */
+    public Map<Object, Integer> countBy(ReportsFilterRequestDTO filter, GroupBy groupBy) {
+        log.info("Counting tasks with provided filter grouped by: {}", groupBy);
+        return read(() -> taskIndexes.countGroups(matchingTasks(filter), groupBy));
+    }
+
+    private CompressedBitmap matchingTasks(ReportsFilterRequestDTO filter) {
+        List<TaskIndexes.AccessPath> accessPaths = taskIndexes.accessPaths(filter);
+        return accessPaths.isEmpty() ? taskIndexes.getAllTasks() : intersect(accessPaths, null);
+    }
+
+    /**
+     * AND-s the bitmaps of the access paths, which come sorted by cardinality. Once the running result is smaller
+     * than the next path, checking those few tasks against the remaining predicates costs less than building or
+     * scanning the larger bitmaps, so the rest are applied as residual predicates. Must be called under the lock.
+     */
+    private CompressedBitmap intersect(List<TaskIndexes.AccessPath> accessPaths, ReportPlanDTO plan) {
+        TaskIndexes.AccessPath drivingPath = accessPaths.get(0);
+        log.debug("Intersecting {} index bitmaps starting from {} with {} tasks",
+                accessPaths.size(), drivingPath.getDescription(), drivingPath.getCardinality());
+        CompressedBitmap matching = drivingPath.getBitmap();
+        int bitmapsCombined = 1;
+        List<TaskIndexes.AccessPath> residualPaths = Collections.emptyList();
+        for (int i = 1; i < accessPaths.size() && !matching.isEmpty(); i++) {
+            TaskIndexes.AccessPath path = accessPaths.get(i);
+            if (matching.getCardinality() < path.getCardinality()) {
+                residualPaths = accessPaths.subList(i, accessPaths.size());
+                break;
+            }
+            matching = CompressedBitmap.and(matching, path.getBitmap());
+            bitmapsCombined++;
+            if (plan != null) {
+                plan.getIntersectedIndexes().add(path.getDescription());
+            }
+        }
+        if (!residualPaths.isEmpty() && !matching.isEmpty()) {
+            log.debug("Checking {} tasks against {} residual predicates", matching.getCardinality(), residualPaths.size());
+            CompressedBitmap filtered = new CompressedBitmap();
+            List<TaskIndexes.AccessPath> residuals = residualPaths;
+            matching.forEach(id -> {
+                Task task = taskTable.get(id);
+                for (TaskIndexes.AccessPath path : residuals) {
+                    if (!path.matches(task)) {
+                        return;
+                    }
+                }
+                filtered.add(id);
+            });
+            matching = filtered;
+        }
+        if (plan != null) {
+            plan.setAccessPath(bitmapsCombined == 1 ? "index:" + drivingPath.getDescription() : "bitmap-and");
+            accessPaths.forEach(path -> plan.getEstimatedCardinalities().put(path.getDescription(), path.getCardinality()));
+            residualPaths.forEach(path -> plan.getResidualPredicates().add(path.getDescription()));
+            plan.setBitmapsCombined(bitmapsCombined);
+        }
+        return matching;
+    }
+
+    /**
+     * Returns how much off-heap memory the task descriptions hold. Lock-free.
+     */
+    public DescriptionStoreStatsDTO getDescriptionStats() {
+        return new DescriptionStoreStatsDTO(descriptionStore.getLiveBytes(), descriptionStore.getRetainedBytes());
+    }
+
+    /**
+     * Returns the live task counters. Only the first call on a new day takes the write lock, to recount the
+     * overdue tasks; every other call copies the counters under the read lock.
+     */
+    public TaskCountersDTO getCounters() {
+        log.debug("Retrieving task counters");
+        LocalDate today = LocalDate.now();
+        long stamp = lock.readLock();
+        try {
+            if (taskCounters.isOverdueCountedFor(today)) {
+                return taskCounters.toDTO();
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        log.debug("Recounting overdue tasks for {}", today);
+        return write(() -> {
+            taskCounters.countOverdue(today);
+            return taskCounters.toDTO();
+        });
+    }
+
+    public boolean isColumnar() {
+        return taskColumns != null;
+    }
+
+    /**
+     * Evaluates a whole report over the primitive columns: filters, groups and sorts task ids and only then
+     * looks up the snapshot copies of the returned rows. Only available in columnar mode.
+     * <p>
+     * The columns are updated in place by mutations, so the scan runs under the read lock; it only touches
+     * primitive arrays. The snapshot copies are looked up after the lock is released.
+     */
+    public Map<Object, List<Task>> reportFromColumns(ReportsFilterRequestDTO filter, GroupBy groupBy, SortBy sortBy, ReportPlanDTO plan) {
+        log.info("Evaluating report over the task columns with groupBy: {} and sortBy: {}", groupBy, sortBy);
+        DataSnapshot currentSnapshot;
+        int matched;
+        Map<Object, String[]> groupNames = new LinkedHashMap<>();
+        long stamp = lock.readLock();
+        try {
+            currentSnapshot = snapshot;
+            int[] matching = taskColumns.filter(filter);
+            matched = matching.length;
+            log.debug("Column scan matched {} of {} tasks", matched, taskTable.size());
+            taskColumns.group(matching, groupBy, sortBy).forEach((key, ids) -> groupNames.put(key, names(ids, ids.length)));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        PersistentHashMap<String, Task> tasks = currentSnapshot.getTasks();
+        Map<Object, List<Task>> report = new LinkedHashMap<>();
+        groupNames.forEach((key, names) -> report.put(key, MatchedTasks.resolve(tasks, names)));
+        if (plan != null) {
+            plan.setAccessPath("column-scan");
+            plan.setTotalTasks(tasks.size());
+            plan.setRowsMatched(matched);
+            plan.setSnapshotVersion(currentSnapshot.getVersion());
+        }
+        return report;
+    }
+
+    /**
+     * Returns true if these matched tasks are enough to be grouped and sorted by {@link #reportInParallel}.
+     */
+    public boolean isParallelFor(MatchedTasks matched) {
+        return reportPool != null && matched.size() >= parallelThreshold;
+    }
+
+    /**
+     * Groups and sorts the tasks from {@link #matchTasks} on the report fork/join pool: the matched rows are
+     * split into ranges that are grouped and sorted in parallel and merged back pairwise (see
+     * {@link ParallelReportTask}). The rows come from the matched snapshot, so no lock is held. Returns the
+     * same groups and order as grouping and sorting {@link MatchedTasks#toList()} with a stable sort.
+     */
+    public Map<Object, List<Task>> reportInParallel(MatchedTasks matched, GroupBy groupBy, SortBy sortBy, ReportPlanDTO plan) {
+        log.info("Evaluating report in parallel with groupBy: {} and sortBy: {}", groupBy, sortBy);
+        log.debug("Splitting {} matched tasks over {} threads", matched.size(), reportPool.getParallelism());
+        Map<Object, List<Task>> report = reportPool.invoke(
+                new ParallelReportTask(matched.rows(), groupBy, sortBy, 0, matched.size()));
+        if (groupBy == null && report.isEmpty()) {
+            report.put(null, new ArrayList<>());
+        }
+        if (plan != null) {
+            plan.setParallelism(reportPool.getParallelism());
+        }
+        return report;
+    }
+
+    /**
+     * Returns up to {@code limit} tasks matching the filter in the given sort order, starting after the cursor
+     * key, together with the cursor of the page's last row if more rows may follow.
+     * <p>
+     * Two plans are costed against each other. Walking the {@link TaskOrderIndex} from the cursor and keeping
+     * the ids in the filter bitmap visits about {@code limit * total / matched} rows; pushing every matching
+     * row through a heap bounded to {@code limit} visits {@code matched} rows. The walk wins for broad
+     * filters, the heap for selective ones. Either way nothing beyond the page is sorted or materialized.
+     */
+    public ReportPageDTO<Task> pageBy(ReportsFilterRequestDTO filter, SortBy sortBy, int limit, TaskOrderIndex.SortKey cursor, ReportPlanDTO plan) {
+        log.info("Fetching a page of {} tasks sorted by: {}", limit, sortBy);
+        DataSnapshot currentSnapshot;
+        String[] names;
+        boolean more;
+        long stamp = lock.readLock();
+        try {
+            currentSnapshot = snapshot;
+            List<TaskIndexes.AccessPath> accessPaths = taskIndexes.accessPaths(filter);
+            CompressedBitmap matching = accessPaths.isEmpty() ? null : intersect(accessPaths, plan);
+            int total = taskTable.size();
+            int matched = matching == null ? total : matching.getCardinality();
+
+            int[] ids = new int[limit + 1];
+            int count = 0;
+            boolean walkOrder = matching == null || (long) limit * total <= (long) matched * matched;
+            if (walkOrder) {
+                log.debug("Walking the {} order for {} of {} matching tasks", sortBy, limit, matched);
+                for (int id : taskOrder.after(sortBy, cursor)) {
+                    if (matching == null || matching.contains(id)) {
+                        ids[count++] = id;
+                        if (count == ids.length) {
+                            break;
+                        }
+                    }
+                }
+            } else {
+                log.debug("Selecting the top {} of {} matching tasks with a bounded heap", limit, matched);
+                count = topK(matching, TaskOrderIndex.comparator(sortBy), cursor, ids);
+            }
+
+            more = count > limit;
+            names = names(ids, Math.min(count, limit));
+
+            if (plan != null) {
+                plan.setOrdering(walkOrder ? "sorted-index:" + sortBy : "top-k-heap");
+                plan.setTotalTasks(total);
+                plan.setRowsMatched(matched);
+                plan.setSnapshotVersion(currentSnapshot.getVersion());
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        List<Task> rows = MatchedTasks.resolve(currentSnapshot.getTasks(), names);
+        String nextCursor = more ? TaskOrderIndex.SortKey.of(rows.get(rows.size() - 1)).encode() : null;
+        return new ReportPageDTO<>(rows, nextCursor);
+    }
+
+    /**
+     * Keeps the smallest {@code ids.length} keys after the cursor of the matching tasks in a max-heap, so each
+     * row costs at most one comparison against the heap's largest key, and writes their ids to {@code ids} in
+     * ascending order. Must be called under the lock.
+     */
+    private int topK(CompressedBitmap matching, Comparator<TaskOrderIndex.SortKey> order, TaskOrderIndex.SortKey cursor, int[] ids) {
+        PriorityQueue<TaskOrderIndex.SortKey> heap = new PriorityQueue<>(ids.length, order.reversed());
+        Map<TaskOrderIndex.SortKey, Integer> keyIds = new IdentityHashMap<>(ids.length);
+        matching.forEach(id -> {
+            TaskOrderIndex.SortKey key = TaskOrderIndex.SortKey.of(taskTable.get(id));
+            if (cursor != null && order.compare(key, cursor) <= 0) {
+                return;
+            }
+            if (heap.size() == ids.length) {
+                if (order.compare(key, heap.peek()) >= 0) {
+                    return;
+                }
+                keyIds.remove(heap.poll());
+            }
+            heap.add(key);
+            keyIds.put(key, id);
+        });
+        int count = heap.size();
+        for (int i = count - 1; i >= 0; i--) {
+            ids[i] = keyIds.get(heap.poll());
+        }
+        return count;
+    }
+
+    /**
+     * Returns the version stamp of a report that depends on the set of tasks and the given attributes. A
+     * result computed while the stamp had this value is still correct as long as the stamp has not changed.
+     */
+    public long reportVersion(Collection<GroupBy> dependsOn) {
+        return read(() -> reportVersions.stamp(dependsOn));
+    }
+
+    /**
+     * Turns the task ids of a cached report back into the current snapshot copies, group by group. Returns
+     * null if the report's stamp has moved on since {@code version}, because the ids may no longer mean the
+     * same tasks.
+     */
+    public Map<Object, List<Task>> materialize(Map<Object, int[]> groups, Collection<GroupBy> dependsOn, long version) {
+        log.debug("Materializing a cached report of {} groups", groups.size());
+        DataSnapshot currentSnapshot;
+        Map<Object, String[]> groupNames = new LinkedHashMap<>();
+        long stamp = lock.readLock();
+        try {
+            if (reportVersions.stamp(dependsOn) != version) {
+                log.debug("Cached report is stale");
+                return null;
+            }
+            currentSnapshot = snapshot;
+            groups.forEach((key, ids) -> groupNames.put(key, names(ids, ids.length)));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        PersistentHashMap<String, Task> tasks = currentSnapshot.getTasks();
+        Map<Object, List<Task>> report = new LinkedHashMap<>();
+        groupNames.forEach((key, names) -> report.put(key, MatchedTasks.resolve(tasks, names)));
+        return report;
+    }
+
+    /**
+     * Appends the record of the current mutation to the journal. Must be called under the write lock, after
+     * the mutation has been validated and before anything is changed, so a journal that can no longer be
+     * written stops the mutation before it takes effect.
+     *
+     * @throws IllegalStateException if the journal has failed
+     */
+    private void journal(RecordWriter record) {
+        journaledLsn = journal.append(record);
+    }
+
+    /**
+     * Applies the effect of one journal record. Runs under the write lock, before the journal accepts appends,
+     * through the same private steps the mutations use, so the request validations are not re-run. The undo
+     * and redo stacks are not journaled.
+     */
+    private void replay(RecordType type, RecordReader record) {
+        switch (type) {
+            case UserAdded: {
+                User user = new User(record.readString(), record.readString(), record.readString());
+                for (int roles = record.readCount(); roles > 0; roles--) {
+                    user.getRoles().add(record.readEnum(ROLES));
+                }
+                userMap.put(user.getUsername(), user);
+                snapshot = snapshot.withUser(user);
+                break;
+            }
+            case TaskAdded: {
+                String name = record.readString();
+                String description = record.readString();
+                Integer priority = record.readInteger();
+                TaskStatus status = record.readEnum(STATUSES);
+                Category category = record.readEnum(CATEGORIES);
+                LocalDate deadline = record.readDate();
+                String owner = record.readString();
+                Task task = new Task(name, description, priority, category, deadline, owner == null ? null : replayedUser(owner));
+                task.setStatus(status);
+                if (!insert(task)) {
+                    throw new IllegalStateException("The journal adds the task " + name + " twice");
+                }
+                break;
+            }
+            case TaskDeleted:
+                remove(replayedTask(record.readString()));
+                break;
+            case TaskScheduled:
+                schedule(replayedTask(record.readString()));
+                break;
+            case TaskBuffered:
+                buffer(replayedTask(record.readString()));
+                break;
+            case TasksPlanned: {
+                List<Task> planned = new ArrayList<>();
+                for (int tasks = record.readCount(); tasks > 0; tasks--) {
+                    Task task = replayedTask(record.readString());
+                    plan(task, record.readInteger(), record.readDate());
+                    planned.add(task);
+                }
+                scheduledTasks.addAll(planned);
+                break;
+            }
+            case TaskAttributesUpdated:
+                for (int tasks = record.readCount(); tasks > 0; tasks--) {
+                    updateAttributes(replayedTask(record.readString()), record.readInteger(), record.readDate(), record.readEnum(CATEGORIES));
+                }
+                break;
+            case TaskDequeued:
+                scheduledTasks.remove(replayedTask(record.readString()));
+                break;
+            case TaskProcessed:
+                process(replayedTask(record.readString()), record.readEnum(STATUSES));
+                break;
+            case TaskStatusChanged: {
+                Task task = replayedTask(record.readString());
+                changeIndexedStatus(task, record.readEnum(STATUSES));
+                snapshot = snapshot.withTask(task);
+                break;
+            }
+            case TaskDependenciesAdded: {
+                Task task = replayedTask(record.readString());
+                for (int dependencies = record.readCount(); dependencies > 0; dependencies--) {
+                    dependencyGraph.addEdge(task.getId(), replayedTask(record.readString()).getId());
+                }
+                snapshot = snapshot.withNextVersion();
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unsupported journal record: " + type);
+        }
+    }
+
+    private Task replayedTask(String name) {
+        Task task = taskTable.get(name);
+        if (task == null) {
+            throw new IllegalStateException("The journal refers to the unknown task " + name);
+        }
+        return task;
+    }
+
+    private User replayedUser(String username) {
+        User user = userMap.get(username);
+        if (user == null) {
+            throw new IllegalStateException("The journal refers to the unknown user " + username);
+        }
+        return user;
+    }
+
+    private void attributeChanging(GroupBy attribute, Object oldValue, Object newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            reportVersions.attributeChanged(attribute);
+        }
+    }
+
+    private void index(Task task) {
+        taskIndexes.add(task);
+        taskCounters.add(task);
+        taskOrder.add(task);
+        if (taskColumns != null) {
+            taskColumns.add(task);
+        }
+    }
+
+    private void unindex(Task task) {
+        taskIndexes.remove(task);
+        taskCounters.remove(task);
+        taskOrder.remove(task);
+        if (taskColumns != null) {
+            taskColumns.remove(task);
+        }
+    }
+
+    private void changeIndexedStatus(Task task, TaskStatus status) {
+        attributeChanging(GroupBy.Status, task.getStatus(), status);
+        taskCounters.changeStatus(task, status);
+        taskIndexes.changeStatus(task, status);
+        if (taskColumns != null) {
+            taskColumns.changeStatus(task, status);
+        }
+    }
+
+    private void write(Runnable mutation) {
+        write(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Applies the mutation and, with the journal enabled, waits until everything it has seen is durable. The
+     * wait happens after the write lock is released, so other mutations can join the same journal batch.
+     */
+    private <T> T write(Supplier<T> mutation) {
+        if (journal == null) {
+            return apply(mutation);
+        }
+        long[] lsn = new long[1];
+        T result = apply(() -> {
+            T value = mutation.get();
+            lsn[0] = journaledLsn;
+            return value;
+        });
+        journal.awaitDurable(lsn[0]);
+        return result;
+    }
+
+    private <T> T apply(Supplier<T> mutation) {
+        if (mutationPipeline != null) {
+            return mutationPipeline.execute(() -> applyUnderWriteLock(mutation));
+        }
+        return applyUnderWriteLock(mutation);
+    }
+
+    private <T> T applyUnderWriteLock(Supplier<T> mutation) {
+        long stamp = lock.writeLock();
+        try {
+            return mutation.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
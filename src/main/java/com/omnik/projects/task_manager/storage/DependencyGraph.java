@@ -0,0 +1,115 @@
+package com.omnik.projects.task_manager.storage;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Dependency edges between tasks, stored by task id as primitive adjacency arrays.
+ * <p>
+ * For every task the graph keeps the ids it depends on and, in the opposite direction, the ids that depend
+ * on it, so both walks read one contiguous {@code int[]} instead of chasing hash set entries. The reverse
+ * lists let a removed task be detached in time proportional to its own edges, which matters because its
+ * id is reused for the next task.
+ * <p>
+ * Not thread-safe; the DataStore lock guards it.
+ */
+public class DependencyGraph {
+
+    private int[][] dependencies = new int[64][];
+    private int[] dependencyCounts = new int[64];
+    private int[][] dependents = new int[64][];
+    private int[] dependentCounts = new int[64];
+
+    /**
+     * Records that {@code task} depends on {@code dependency}. Returns false if the edge already exists.
+     */
+    public boolean addEdge(int task, int dependency) {
+        ensureCapacity(Math.max(task, dependency) + 1);
+        if (indexOf(dependencies[task], dependencyCounts[task], dependency) >= 0) {
+            return false;
+        }
+        dependencies[task] = append(dependencies[task], dependencyCounts[task]++, dependency);
+        dependents[dependency] = append(dependents[dependency], dependentCounts[dependency]++, task);
+        return true;
+    }
+
+    public void forEachDependency(int task, IntConsumer action) {
+        if (task < dependencies.length) {
+            forEach(dependencies[task], dependencyCounts[task], action);
+        }
+    }
+
+    public void forEachDependent(int task, IntConsumer action) {
+        if (task < dependents.length) {
+            forEach(dependents[task], dependentCounts[task], action);
+        }
+    }
+
+    /**
+     * Removes every edge into and out of the task, leaving its id free for reuse.
+     */
+    public void detach(int task) {
+        if (task >= dependencies.length) {
+            return;
+        }
+        for (int i = 0; i < dependencyCounts[task]; i++) {
+            int dependency = dependencies[task][i];
+            dependentCounts[dependency] = removeValue(dependents[dependency], dependentCounts[dependency], task);
+        }
+        for (int i = 0; i < dependentCounts[task]; i++) {
+            int dependent = dependents[task][i];
+            dependencyCounts[dependent] = removeValue(dependencies[dependent], dependencyCounts[dependent], task);
+        }
+        dependencies[task] = null;
+        dependencyCounts[task] = 0;
+        dependents[task] = null;
+        dependentCounts[task] = 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > dependencies.length) {
+            int newCapacity = Math.max(required, dependencies.length << 1);
+            dependencies = Arrays.copyOf(dependencies, newCapacity);
+            dependencyCounts = Arrays.copyOf(dependencyCounts, newCapacity);
+            dependents = Arrays.copyOf(dependents, newCapacity);
+            dependentCounts = Arrays.copyOf(dependentCounts, newCapacity);
+        }
+    }
+
+    private static int[] append(int[] edges, int count, int value) {
+        if (edges == null) {
+            edges = new int[4];
+        } else if (count == edges.length) {
+            edges = Arrays.copyOf(edges, count << 1);
+        }
+        edges[count] = value;
+        return edges;
+    }
+
+    private static int indexOf(int[] edges, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (edges[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the value by moving the last edge into its place and returns the new count.
+     */
+    private static int removeValue(int[] edges, int count, int value) {
+        int index = indexOf(edges, count, value);
+        if (index < 0) {
+            return count;
+        }
+        edges[index] = edges[count - 1];
+        return count - 1;
+    }
+
+    private static void forEach(int[] edges, int count, IntConsumer action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(edges[i]);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.entities.Task;
+
+import java.util.*;
+
+/**
+ * Min-heap of scheduled tasks ordered by priority, then deadline.
+ * <p>
+ * Each task's (priority, deadline) pair is packed into one {@code long} when it enters the heap, so sifting
+ * compares primitives instead of unboxing priorities and comparing {@link java.time.LocalDate}s. The heap
+ * remembers the slot of every task in an array indexed by task id, which makes {@link #contains} O(1) and
+ * {@link #remove} and {@link #update} O(log n). A 4-ary layout keeps the tree shallow and the children of a node adjacent.
+ * <p>
+ * Not thread-safe; the DataStore lock guards it.
+ */
+public class IndexedTaskHeap {
+
+    private static final int ARITY = 4;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Task[] tasks = new Task[INITIAL_CAPACITY];
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int size;
+    private int[] positions = new int[0];
+
+    /**
+     * Packs the priority into the high 32 bits and the epoch day (biased to sort as unsigned) into the low
+     * 32 bits, so comparing two keys as signed longs orders by priority first and deadline second.
+     */
+    public static long sortKey(Task task) {
+        long priority = task.getPriority();
+        long epochDay = task.getDeadline().toEpochDay();
+        return (priority << 32) | ((epochDay + 0x80000000L) & 0xFFFFFFFFL);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(Task task) {
+        return positionOf(task) >= 0;
+    }
+
+    public Task peek() {
+        return size == 0 ? null : tasks[0];
+    }
+
+    public void add(Task task) {
+        if (contains(task)) {
+            throw new IllegalStateException("Task is already scheduled: " + task.getName());
+        }
+        ensureCapacity(size + 1);
+        int slot = size++;
+        place(task, sortKey(task), slot);
+        siftUp(slot);
+    }
+
+    /**
+     * Adds a batch of tasks. A batch at least as large as the heap is appended as-is and the whole array is
+     * re-heapified bottom-up in O(n), which is cheaper than sifting every task in individually.
+     */
+    public void addAll(Collection<Task> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() < size) {
+            batch.forEach(this::add);
+            return;
+        }
+        ensureCapacity(size + batch.size());
+        for (Task task : batch) {
+            if (contains(task)) {
+                throw new IllegalStateException("Task is already scheduled: " + task.getName());
+            }
+            place(task, sortKey(task), size++);
+        }
+        for (int slot = (size - 2) / ARITY; slot >= 0; slot--) {
+            siftDown(slot);
+        }
+    }
+
+    public Task poll() {
+        if (size == 0) {
+            return null;
+        }
+        Task head = tasks[0];
+        removeAt(0);
+        return head;
+    }
+
+    public boolean remove(Task task) {
+        int slot = positionOf(task);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Restores the heap order after the task's priority or deadline has been changed in place.
+     */
+    public boolean update(Task task) {
+        int slot = positionOf(task);
+        if (slot < 0) {
+            return false;
+        }
+        long oldKey = keys[slot];
+        long newKey = sortKey(task);
+        keys[slot] = newKey;
+        if (newKey < oldKey) {
+            siftUp(slot);
+        } else if (newKey > oldKey) {
+            siftDown(slot);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the tasks in heap (not sorted) order.
+     */
+    public List<Task> toList() {
+        return new ArrayList<>(Arrays.asList(tasks).subList(0, size));
+    }
+
+    private void removeAt(int slot) {
+        positions[tasks[slot].getId()] = -1;
+        int last = --size;
+        if (slot != last) {
+            Task moved = tasks[last];
+            place(moved, keys[last], slot);
+            tasks[last] = null;
+            siftDown(slot);
+            if (tasks[slot] == moved) {
+                siftUp(slot);
+            }
+        } else {
+            tasks[last] = null;
+        }
+    }
+
+    private void siftUp(int slot) {
+        Task task = tasks[slot];
+        long key = keys[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) / ARITY;
+            if (keys[parent] <= key) {
+                break;
+            }
+            place(tasks[parent], keys[parent], slot);
+            slot = parent;
+        }
+        place(task, key, slot);
+    }
+
+    private void siftDown(int slot) {
+        Task task = tasks[slot];
+        long key = keys[slot];
+        while (true) {
+            int firstChild = slot * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int smallest = firstChild;
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (keys[child] < keys[smallest]) {
+                    smallest = child;
+                }
+            }
+            if (keys[smallest] >= key) {
+                break;
+            }
+            place(tasks[smallest], keys[smallest], slot);
+            slot = smallest;
+        }
+        place(task, key, slot);
+    }
+
+    private void place(Task task, long key, int slot) {
+        tasks[slot] = task;
+        keys[slot] = key;
+        int id = task.getId();
+        if (id >= positions.length) {
+            int oldLength = positions.length;
+            positions = Arrays.copyOf(positions, Math.max(id + 1, Math.max(INITIAL_CAPACITY, oldLength << 1)));
+            Arrays.fill(positions, oldLength, positions.length, -1);
+        }
+        positions[id] = slot;
+    }
+
+    /**
+     * Returns the slot of the task, or -1. The task in the slot is compared too, since ids are reused.
+     */
+    private int positionOf(Task task) {
+        int id = task.getId();
+        if (id < 0 || id >= positions.length) {
+            return -1;
+        }
+        int slot = positions[id];
+        return slot >= 0 && tasks[slot] == task ? slot : -1;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > tasks.length) {
+            int newCapacity = Math.max(required, tasks.length << 1);
+            tasks = Arrays.copyOf(tasks, newCapacity);
+            keys = Arrays.copyOf(keys, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.storage.snapshot.DataSnapshot;
+import com.omnik.projects.task_manager.storage.snapshot.PersistentHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * The tasks matching a report filter, fixed at one snapshot.
+ * <p>
+ * Only the names of the matching tasks are copied under the DataStore read lock, in id order. The rows are
+ * looked up in the immutable snapshot afterwards without any lock, so materializing, grouping and sorting
+ * a large report never blocks a writer. A filter that pins nothing matches the whole snapshot and copies
+ * nothing.
+ */
+public final class MatchedTasks {
+
+    private final DataSnapshot snapshot;
+    private final String[] names;
+
+    /**
+     * @param names the names of the matching tasks, or null for every task of the snapshot
+     */
+    MatchedTasks(DataSnapshot snapshot, String[] names) {
+        this.snapshot = snapshot;
+        this.names = names;
+    }
+
+    public DataSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int size() {
+        return names == null ? snapshot.getTasks().size() : names.length;
+    }
+
+    /**
+     * Returns the snapshot copies of the matching tasks.
+     */
+    public List<Task> toList() {
+        PersistentHashMap<String, Task> tasks = snapshot.getTasks();
+        if (names == null) {
+            return tasks.values().collect(Collectors.toList());
+        }
+        return resolve(tasks, names);
+    }
+
+    /**
+     * Returns a lookup of the snapshot copy of the i-th matching task, in the order of {@link #toList()}, for
+     * splitting the matching tasks over threads by position.
+     */
+    IntFunction<Task> rows() {
+        PersistentHashMap<String, Task> tasks = snapshot.getTasks();
+        if (names == null) {
+            Task[] all = tasks.values().toArray(Task[]::new);
+            return i -> all[i];
+        }
+        return i -> tasks.get(names[i]);
+    }
+
+    /**
+     * Looks up the snapshot copies of the named tasks. Every name must be in the snapshot.
+     */
+    static List<Task> resolve(PersistentHashMap<String, Task> tasks, String[] names) {
+        List<Task> rows = new ArrayList<>(names.length);
+        for (String name : names) {
+            rows.add(tasks.get(name));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,163 @@
+package com.omnik.projects.task_manager.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer pipeline for DataStore mutations.
+ * <p>
+ * Request threads publish commands into a pre-allocated ring buffer and wait on a future. One writer
+ * thread consumes the slots strictly in sequence order, so every mutation gets a position in a total
+ * order and writers never contend with each other. A producer only claims a sequence once its slot has
+ * been consumed, so a producer that would lap the writer waits without holding a claim, and gives up when
+ * the pipeline is shut down.
+ */
+@Slf4j
+public class MutationPipeline {
+
+    private static final long WRITER_PARK_NANOS = 100_000L;
+    private static final long PRODUCER_PARK_NANOS = 1_000L;
+    private static final String SHUT_DOWN = "The mutation pipeline has been shut down";
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLongArray publishedSequences;
+    private final AtomicLong claimedSequence = new AtomicLong(-1);
+    private volatile long consumedSequence = -1;
+    private volatile boolean running = true;
+    private final Thread writer;
+
+    public MutationPipeline(int minimumCapacity) {
+        int capacity = 1;
+        while (capacity < minimumCapacity) {
+            capacity <<= 1;
+        }
+        this.slots = new Slot[capacity];
+        this.mask = capacity - 1;
+        this.publishedSequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            publishedSequences.set(i, -1);
+        }
+        this.writer = new Thread(this::drain, "datastore-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        log.info("Mutation pipeline started with ring buffer capacity: {}", capacity);
+    }
+
+    /**
+     * Publishes the command and blocks until the writer thread has applied it. Runtime exceptions thrown
+     * by the command are rethrown to the caller unchanged.
+     */
+    public <T> T execute(Supplier<T> command) {
+        if (Thread.currentThread() == writer) {
+            // A command that triggers another mutation is already running on the writer, apply it inline.
+            return command.get();
+        }
+        try {
+            return publish(command).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> publish(Supplier<T> command) {
+        if (!running) {
+            throw new IllegalStateException(SHUT_DOWN);
+        }
+        long sequence;
+        while (true) {
+            long claimed = claimedSequence.get();
+            if (claimed + 1 - slots.length > consumedSequence) {
+                // The ring is full. Nothing is claimed yet, so the writer never waits for this producer.
+                if (!running) {
+                    return CompletableFuture.failedFuture(new IllegalStateException(SHUT_DOWN));
+                }
+                LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+            } else if (claimedSequence.compareAndSet(claimed, claimed + 1)) {
+                sequence = claimed + 1;
+                break;
+            }
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        int index = (int) (sequence & mask);
+        Slot slot = slots[index];
+        slot.command = (Supplier<Object>) command;
+        slot.future = future;
+        publishedSequences.set(index, sequence);
+        LockSupport.unpark(writer);
+        if (!running) {
+            // The writer may have seen nothing left to apply and stopped before this slot was claimed. Once it
+            // has stopped, a command it did not complete will never run.
+            awaitWriterStopped();
+            future.completeExceptionally(new IllegalStateException(SHUT_DOWN));
+        }
+        return (CompletableFuture<T>) future;
+    }
+
+    public long getAppliedSequence() {
+        return consumedSequence;
+    }
+
+    public void shutdown() {
+        log.info("Shutting down mutation pipeline at sequence: {}", consumedSequence);
+        running = false;
+        LockSupport.unpark(writer);
+        awaitWriterStopped();
+    }
+
+    private void awaitWriterStopped() {
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            long next = consumedSequence + 1;
+            int index = (int) (next & mask);
+            if (publishedSequences.get(index) != next) {
+                if (!running && claimedSequence.get() < next) {
+                    return;
+                }
+                LockSupport.parkNanos(this, WRITER_PARK_NANOS);
+                continue;
+            }
+            Slot slot = slots[index];
+            Supplier<Object> command = slot.command;
+            CompletableFuture<Object> future = slot.future;
+            slot.command = null;
+            slot.future = null;
+            try {
+                future.complete(command.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+            log.trace("Applied mutation with sequence: {}", next);
+            consumedSequence = next;
+        }
+    }
+
+    private static final class Slot {
+        private Supplier<Object> command;
+        private CompletableFuture<Object> future;
+    }
+}
@@ -0,0 +1,107 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+import com.omnik.projects.task_manager.enums.reports.SortBy;
+
+import java.util.*;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Groups and sorts one range of the tasks matched by a report filter with fork/join.
+ * <p>
+ * A range larger than {@link #LEAF_SIZE} rows is split in two halves that run in parallel. A leaf looks up
+ * the snapshot copies of its rows and sorts its own groups. Two halves are merged group by group, merging
+ * the two sorted runs of a group in one linear pass with the left run first on ties, so the result is the
+ * same as a stable sort over all matched tasks in order.
+ * <p>
+ * The rows are read from an immutable snapshot, so no lock is held while the task runs.
+ */
+final class ParallelReportTask extends RecursiveTask<Map<Object, List<Task>>> {
+
+    private static final int LEAF_SIZE = 8192;
+
+    private final IntFunction<Task> rows;
+    private final Function<Task, Object> groupKey;
+    private final Comparator<Task> order;
+    private final int from;
+    private final int to;
+
+    /**
+     * @param rows the matched tasks by position, from {@link MatchedTasks#rows()}
+     */
+    ParallelReportTask(IntFunction<Task> rows, GroupBy groupBy, SortBy sortBy, int from, int to) {
+        this(rows, groupBy == null ? null : groupBy::keyOf, order(sortBy), from, to);
+    }
+
+    private ParallelReportTask(IntFunction<Task> rows, Function<Task, Object> groupKey, Comparator<Task> order, int from, int to) {
+        this.rows = rows;
+        this.groupKey = groupKey;
+        this.order = order;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Map<Object, List<Task>> compute() {
+        if (to - from <= LEAF_SIZE) {
+            return leaf();
+        }
+        int middle = (from + to) >>> 1;
+        ParallelReportTask left = new ParallelReportTask(rows, groupKey, order, from, middle);
+        ParallelReportTask right = new ParallelReportTask(rows, groupKey, order, middle, to);
+        left.fork();
+        Map<Object, List<Task>> rightGroups = right.compute();
+        return merge(left.join(), rightGroups);
+    }
+
+    private Map<Object, List<Task>> leaf() {
+        Map<Object, List<Task>> groups = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            Task row = rows.apply(i);
+            Object key = groupKey == null ? null : groupKey.apply(row);
+            groups.computeIfAbsent(key, value -> new ArrayList<>()).add(row);
+        }
+        if (order != null) {
+            groups.values().forEach(group -> group.sort(order));
+        }
+        return groups;
+    }
+
+    private Map<Object, List<Task>> merge(Map<Object, List<Task>> left, Map<Object, List<Task>> right) {
+        right.forEach((key, rightRows) -> {
+            List<Task> leftRows = left.get(key);
+            if (leftRows == null) {
+                left.put(key, rightRows);
+            } else if (order == null) {
+                leftRows.addAll(rightRows);
+            } else {
+                left.put(key, mergeRuns(leftRows, rightRows));
+            }
+        });
+        return left;
+    }
+
+    private List<Task> mergeRuns(List<Task> left, List<Task> right) {
+        List<Task> merged = new ArrayList<>(left.size() + right.size());
+        int i = 0;
+        int j = 0;
+        while (i < left.size() && j < right.size()) {
+            merged.add(order.compare(right.get(j), left.get(i)) < 0 ? right.get(j++) : left.get(i++));
+        }
+        merged.addAll(left.subList(i, left.size()));
+        merged.addAll(right.subList(j, right.size()));
+        return merged;
+    }
+
+    private static Comparator<Task> order(SortBy sortBy) {
+        if (sortBy == null) {
+            return null;
+        }
+        return sortBy == SortBy.Priority
+                ? Comparator.comparing(Task::getPriority, Comparator.nullsLast(Comparator.naturalOrder()))
+                : Comparator.comparing(Task::getDeadline, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+
+import java.util.Collection;
+
+/**
+ * Version counters that tell a cached report result whether it is still current.
+ * <p>
+ * A report's rows, grouping and order depend on which tasks exist and on the attributes its filter,
+ * groupBy and sortBy touch, not on anything else. So there is one counter for the set of tasks, bumped
+ * when a task is added or deleted, and one per attribute, bumped when any task's value of it changes. The
+ * stamp of a report is the sum of the set counter and the counters of its attributes. Every counter only
+ * grows, so the stamp changes exactly when one of them does, and a status change leaves the stamp of an
+ * owner-only report alone.
+ * <p>
+ * Not thread-safe; the DataStore lock guards it.
+ */
+public class ReportVersions {
+
+    private long tasks;
+    private final long[] attributes = new long[GroupBy.values().length];
+
+    public void tasksChanged() {
+        tasks++;
+    }
+
+    public void attributeChanged(GroupBy attribute) {
+        attributes[attribute.ordinal()]++;
+    }
+
+    public long stamp(Collection<GroupBy> dependsOn) {
+        long stamp = tasks;
+        for (GroupBy attribute : dependsOn) {
+            stamp += attributes[attribute.ordinal()];
+        }
+        return stamp;
+    }
+}
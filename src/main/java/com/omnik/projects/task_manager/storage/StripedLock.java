@@ -0,0 +1,64 @@
+package com.omnik.projects.task_manager.storage;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of re-entrant locks selected by the hash of a key. Two keys only contend
+ * when they fall on the same stripe, so unrelated tasks can be worked on concurrently.
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public StripedLock(int minimumStripes) {
+        int size = 1;
+        while (size < minimumStripes) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(Object key) {
+        return stripes[stripe(key)];
+    }
+
+    /**
+     * Acquires the stripe for the key and returns it so the caller can release it in a finally block.
+     */
+    public Lock lock(Object key) {
+        Lock lock = get(key);
+        lock.lock();
+        return lock;
+    }
+
+    /**
+     * Acquires the stripes of all keys, each once and in stripe order, so two callers locking overlapping key
+     * sets cannot deadlock. The caller must release the returned locks in a finally block.
+     */
+    public List<Lock> lockAll(Collection<?> keys) {
+        BitSet needed = new BitSet(stripes.length);
+        keys.forEach(key -> needed.set(stripe(key)));
+        List<Lock> locked = new ArrayList<>(needed.cardinality());
+        for (int stripe = needed.nextSetBit(0); stripe >= 0; stripe = needed.nextSetBit(stripe + 1)) {
+            stripes[stripe].lock();
+            locked.add(stripes[stripe]);
+        }
+        return locked;
+    }
+
+    private int stripe(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & mask;
+    }
+}
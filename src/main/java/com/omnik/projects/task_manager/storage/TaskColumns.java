@@ -0,0 +1,285 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.entities.User;
+import com.omnik.projects.task_manager.enums.Category;
+import com.omnik.projects.task_manager.enums.TaskStatus;
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+import com.omnik.projects.task_manager.enums.reports.SortBy;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * The report attributes of the live tasks as parallel primitive arrays indexed by task id: a {@code byte}
+ * status and category ordinal, an {@code int} priority, an {@code int} epoch-day deadline and an {@code int}
+ * owner id. Missing values are stored as {@link #NONE}.
+ * <p>
+ * A report filter is a single loop over the columns that compares primitives, and grouping and sorting
+ * pack the column values and row positions into {@code long}s and sort those, so no {@link Task} is touched
+ * until the caller materializes the rows it returns.
+ * <p>
+ * Like {@link TaskIndexes}, the columns are told about every add, remove and status change. Not
+ * thread-safe; the DataStore lock guards it.
+ */
+public class TaskColumns {
+
+    private static final int NONE = Integer.MIN_VALUE;
+    static final long MISSING_KEY = Integer.MAX_VALUE + 1L;
+    private static final int POSITION_BITS = 31;
+    private static final byte NO_ORDINAL = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Category[] CATEGORIES = Category.values();
+
+    private byte[] status = new byte[INITIAL_CAPACITY];
+    private byte[] category = new byte[INITIAL_CAPACITY];
+    private int[] priority = new int[INITIAL_CAPACITY];
+    private int[] deadline = new int[INITIAL_CAPACITY];
+    private int[] owner = new int[INITIAL_CAPACITY];
+    private int rows;
+
+    private final Map<String, Integer> ownerIds = new HashMap<>();
+    private final List<String> owners = new ArrayList<>();
+
+    public TaskColumns() {
+        Arrays.fill(status, NO_ORDINAL);
+    }
+
+    /**
+     * Writes all report attributes of the task into its row.
+     */
+    public void add(Task task) {
+        int id = task.getId();
+        ensureCapacity(id + 1);
+        status[id] = (byte) task.getStatus().ordinal();
+        category[id] = task.getCategory() == null ? NO_ORDINAL : (byte) task.getCategory().ordinal();
+        priority[id] = task.getPriority() == null ? NONE : task.getPriority();
+        deadline[id] = task.getDeadline() == null ? NONE : Math.toIntExact(task.getDeadline().toEpochDay());
+        owner[id] = task.getOwner() == null ? NONE : ownerId(task.getOwner());
+    }
+
+    public void remove(Task task) {
+        status[task.getId()] = NO_ORDINAL;
+    }
+
+    public void changeStatus(Task task, TaskStatus newStatus) {
+        status[task.getId()] = (byte) newStatus.ordinal();
+    }
+
+    /**
+     * Returns the ids of the tasks matching every predicate of the filter, in ascending order.
+     */
+    public int[] filter(ReportsFilterRequestDTO filter) {
+        int wantedStatus = filter.getStatus() == null ? NO_ORDINAL : filter.getStatus().ordinal();
+        int wantedCategory = filter.getCategory() == null ? NO_ORDINAL : filter.getCategory().ordinal();
+        int wantedOwner = NONE;
+        if (filter.getOwner() != null) {
+            Integer id = ownerIds.get(filter.getOwner());
+            if (id == null) {
+                return new int[0];
+            }
+            wantedOwner = id;
+        }
+
+        boolean priorityPinned = filter.getPriority() != null || filter.getPriorityFrom() != null || filter.getPriorityTo() != null;
+        int priorityFrom = Integer.MIN_VALUE + 1;
+        int priorityTo = Integer.MAX_VALUE;
+        if (filter.getPriority() != null) {
+            priorityFrom = Math.max(priorityFrom, filter.getPriority());
+            priorityTo = Math.min(priorityTo, filter.getPriority());
+        }
+        if (filter.getPriorityFrom() != null) {
+            priorityFrom = Math.max(priorityFrom, filter.getPriorityFrom());
+        }
+        if (filter.getPriorityTo() != null) {
+            priorityTo = Math.min(priorityTo, filter.getPriorityTo());
+        }
+
+        boolean deadlinePinned = filter.getDeadline() != null || filter.getDeadlineFrom() != null || filter.getDeadlineTo() != null;
+        int deadlineFrom = Integer.MIN_VALUE + 1;
+        int deadlineTo = Integer.MAX_VALUE;
+        if (filter.getDeadline() != null) {
+            deadlineFrom = Math.max(deadlineFrom, epochDay(filter.getDeadline()));
+            deadlineTo = Math.min(deadlineTo, epochDay(filter.getDeadline()));
+        }
+        if (filter.getDeadlineFrom() != null) {
+            deadlineFrom = Math.max(deadlineFrom, epochDay(filter.getDeadlineFrom()));
+        }
+        if (filter.getDeadlineTo() != null) {
+            deadlineTo = Math.min(deadlineTo, epochDay(filter.getDeadlineTo()));
+        }
+
+        int[] matching = new int[16];
+        int count = 0;
+        for (int id = 0; id < rows; id++) {
+            int rowStatus = status[id];
+            if (rowStatus == NO_ORDINAL
+                    || (wantedStatus != NO_ORDINAL && rowStatus != wantedStatus)
+                    || (wantedCategory != NO_ORDINAL && category[id] != wantedCategory)
+                    || (wantedOwner != NONE && owner[id] != wantedOwner)) {
+                continue;
+            }
+            if (priorityPinned) {
+                int value = priority[id];
+                if (value == NONE || value < priorityFrom || value > priorityTo) {
+                    continue;
+                }
+            }
+            if (deadlinePinned) {
+                int value = deadline[id];
+                if (value == NONE || value < deadlineFrom || value > deadlineTo) {
+                    continue;
+                }
+            }
+            if (count == matching.length) {
+                matching = Arrays.copyOf(matching, count << 1);
+            }
+            matching[count++] = id;
+        }
+        return Arrays.copyOf(matching, count);
+    }
+
+    /**
+     * Splits the ids into groups by the given attribute and orders each group by the given key, missing values
+     * last and ties in id order. Groups come out ordered by their key, owners in the order they were first
+     * seen, and keyed as by {@link GroupBy#keyOf}: tasks without a value for the grouping attribute form the
+     * last group, {@link GroupBy#NO_VALUE}. With no attribute there is a single group under the {@code null}
+     * key.
+     */
+    public Map<Object, int[]> group(int[] ids, GroupBy groupBy, SortBy sortBy) {
+        Map<Object, int[]> groups = new LinkedHashMap<>();
+        if (groupBy == null) {
+            groups.put(null, sort(ids, 0, ids.length, sortBy));
+            return groups;
+        }
+
+        long[] packed = new long[ids.length];
+        int count = 0;
+        for (int position = 0; position < ids.length; position++) {
+            int key = groupKey(ids[position], groupBy);
+            packed[position] = pack(key == NONE ? MISSING_KEY : key, position);
+        }
+        Arrays.sort(packed);
+
+        int[] grouped = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            grouped[i] = ids[unpackPosition(packed[i])];
+        }
+        int start = 0;
+        while (start < packed.length) {
+            long key = unpackKey(packed[start]);
+            int end = start + 1;
+            while (end < packed.length && unpackKey(packed[end]) == key) {
+                end++;
+            }
+            groups.put(groupValue(key, groupBy), sort(grouped, start, end, sortBy));
+            start = end;
+        }
+        return groups;
+    }
+
+    private int[] sort(int[] ids, int from, int to, SortBy sortBy) {
+        if (sortBy == null) {
+            return Arrays.copyOfRange(ids, from, to);
+        }
+        int[] column = sortBy == SortBy.Priority ? priority : deadline;
+        long[] packed = new long[to - from];
+        for (int position = 0; position < packed.length; position++) {
+            int value = column[ids[from + position]];
+            packed[position] = pack(value == NONE ? MISSING_KEY : value, position);
+        }
+        Arrays.sort(packed);
+        int[] sorted = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            sorted[i] = ids[from + unpackPosition(packed[i])];
+        }
+        return sorted;
+    }
+
+    private int groupKey(int id, GroupBy groupBy) {
+        switch (groupBy) {
+            case Status:
+                return status[id];
+            case Category:
+                return category[id] == NO_ORDINAL ? NONE : category[id];
+            case Owner:
+                return owner[id];
+            case Priority:
+                return priority[id];
+            case Deadline:
+                return deadline[id];
+            default:
+                throw new IllegalArgumentException("Unsupported groupBy: " + groupBy);
+        }
+    }
+
+    private Object groupValue(long key, GroupBy groupBy) {
+        if (key == MISSING_KEY) {
+            return GroupBy.NO_VALUE;
+        }
+        switch (groupBy) {
+            case Status:
+                return STATUSES[(int) key];
+            case Category:
+                return CATEGORIES[(int) key];
+            case Owner:
+                return owners.get((int) key);
+            case Priority:
+                return (int) key;
+            case Deadline:
+                return LocalDate.ofEpochDay(key);
+            default:
+                throw new IllegalArgumentException("Unsupported groupBy: " + groupBy);
+        }
+    }
+
+    /**
+     * Packs a signed key into the high 33 bits and a row position into the low 31 bits, so sorting the longs
+     * as signed orders by key and keeps rows with equal keys in their original order. Every {@code int} key
+     * fits, and {@link #MISSING_KEY} sorts after all of them.
+     */
+    static long pack(long key, int position) {
+        return (key << POSITION_BITS) | position;
+    }
+
+    static long unpackKey(long packed) {
+        return packed >> POSITION_BITS;
+    }
+
+    static int unpackPosition(long packed) {
+        return (int) (packed & Integer.MAX_VALUE);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    private int ownerId(User user) {
+        Integer id = ownerIds.get(user.getUsername());
+        if (id == null) {
+            id = owners.size();
+            owners.add(user.getUsername());
+            ownerIds.put(user.getUsername(), id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > rows) {
+            if (required > status.length) {
+                int newCapacity = Math.max(required, status.length << 1);
+                int oldCapacity = status.length;
+                status = Arrays.copyOf(status, newCapacity);
+                Arrays.fill(status, oldCapacity, newCapacity, NO_ORDINAL);
+                category = Arrays.copyOf(category, newCapacity);
+                priority = Arrays.copyOf(priority, newCapacity);
+                deadline = Arrays.copyOf(deadline, newCapacity);
+                owner = Arrays.copyOf(owner, newCapacity);
+            }
+            rows = required;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.dto.response.TaskCountersDTO;
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.enums.Category;
+import com.omnik.projects.task_manager.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Task counts per status, category, priority and owner, plus the number of overdue tasks, kept up to date by
+ * the same add, remove and status change calls as {@link TaskIndexes} without ever scanning the tasks.
+ * <p>
+ * A task is overdue when its deadline is before today and it is not completed. Because "today" moves, the
+ * counters keep the number of open tasks per deadline and the overdue total for one day: mutations adjust
+ * that total directly, and only {@link #countOverdue} on a new day sums up the earlier deadlines.
+ * <p>
+ * Not thread-safe; the DataStore lock guards it.
+ */
+public class TaskCounters {
+
+    private final int[] statusCounts = new int[TaskStatus.values().length];
+    private final int[] categoryCounts = new int[Category.values().length];
+    private final Map<Integer, Integer> priorityCounts = new TreeMap<>();
+    private final Map<String, Integer> ownerCounts = new HashMap<>();
+    private final TreeMap<LocalDate, Integer> openDeadlineCounts = new TreeMap<>();
+    private int total;
+
+    private LocalDate overdueDay;
+    private int overdueCount;
+
+    public void add(Task task) {
+        count(task, task.getStatus(), 1);
+    }
+
+    public void remove(Task task) {
+        count(task, task.getStatus(), -1);
+    }
+
+    /**
+     * Must be called before the status is changed on the task.
+     */
+    public void changeStatus(Task task, TaskStatus status) {
+        statusCounts[task.getStatus().ordinal()]--;
+        statusCounts[status.ordinal()]++;
+        if (task.getDeadline() != null && isOpen(task.getStatus()) != isOpen(status)) {
+            countOpenDeadline(task.getDeadline(), isOpen(status) ? 1 : -1);
+        }
+    }
+
+    /**
+     * Copies the counters. The cost depends on the number of distinct values, not on the number of tasks.
+     */
+    public TaskCountersDTO toDTO() {
+        TaskCountersDTO counters = new TaskCountersDTO();
+        counters.setTotal(total);
+        for (TaskStatus status : TaskStatus.values()) {
+            counters.getByStatus().put(status, statusCounts[status.ordinal()]);
+        }
+        for (Category category : Category.values()) {
+            counters.getByCategory().put(category, categoryCounts[category.ordinal()]);
+        }
+        counters.getByPriority().putAll(priorityCounts);
+        counters.getByOwner().putAll(ownerCounts);
+        counters.setOverdue(overdueCount);
+        counters.setOverdueAsOf(overdueDay);
+        return counters;
+    }
+
+    public boolean isOverdueCountedFor(LocalDate today) {
+        return today.equals(overdueDay);
+    }
+
+    /**
+     * Recounts the overdue tasks for a new day from the open tasks per deadline.
+     */
+    public void countOverdue(LocalDate today) {
+        int count = 0;
+        for (int deadlineCount : openDeadlineCounts.headMap(today, false).values()) {
+            count += deadlineCount;
+        }
+        overdueDay = today;
+        overdueCount = count;
+    }
+
+    private void count(Task task, TaskStatus status, int delta) {
+        total += delta;
+        statusCounts[status.ordinal()] += delta;
+        if (task.getCategory() != null) {
+            categoryCounts[task.getCategory().ordinal()] += delta;
+        }
+        if (task.getPriority() != null) {
+            add(priorityCounts, task.getPriority(), delta);
+        }
+        if (task.getOwner() != null) {
+            add(ownerCounts, task.getOwner().getUsername(), delta);
+        }
+        if (task.getDeadline() != null && isOpen(status)) {
+            countOpenDeadline(task.getDeadline(), delta);
+        }
+    }
+
+    private void countOpenDeadline(LocalDate deadline, int delta) {
+        add(openDeadlineCounts, deadline, delta);
+        if (overdueDay != null && deadline.isBefore(overdueDay)) {
+            overdueCount += delta;
+        }
+    }
+
+    private static boolean isOpen(TaskStatus status) {
+        return status != TaskStatus.Completed;
+    }
+
+    private static <K> void add(Map<K, Integer> counts, K key, int delta) {
+        counts.merge(key, delta, (count, change) -> count + change == 0 ? null : count + change);
+    }
+}
@@ -0,0 +1,276 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.enums.Category;
+import com.omnik.projects.task_manager.enums.TaskStatus;
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+import com.omnik.projects.task_manager.storage.bitmap.CompressedBitmap;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Secondary indexes over the live tasks, one per attribute a report can filter on.
+ * <p>
+ * Each index value keeps a {@link CompressedBitmap} of the ids of the tasks that have it; the ids come from
+ * the {@link TaskTable} and stay dense, so the bitmaps stay small. A filter is then answered by AND-ing one
+ * bitmap per pinned attribute (ranges OR the buckets in range first), and only the surviving ids are turned
+ * back into tasks. The bitmaps cover every attribute a filter can pin, so their intersection is
+ * the exact result. Every {@link AccessPath} also carries its predicate, so a caller can check the few
+ * remaining rows directly instead of combining a much larger bitmap.
+ * <p>
+ * A task sits in exactly one bucket of every index whose attribute it has set. The indexes read the
+ * attribute values from the task itself, so a caller changing an indexed attribute must {@link #remove}
+ * the task before the change and {@link #add} it again afterwards; status changes go through
+ * {@link #changeStatus}. A task must have its id while it is indexed.
+ * <p>
+ * Not thread-safe; the DataStore lock guards it.
+ */
+public class TaskIndexes {
+
+    private final CompressedBitmap allTasks = new CompressedBitmap();
+    private final EnumMap<TaskStatus, CompressedBitmap> statusGroupedTasks;
+    private final EnumMap<Category, CompressedBitmap> categoryGroupedTasks;
+    private final Map<String, CompressedBitmap> ownerGroupedTasks;
+    private final TreeMap<Integer, CompressedBitmap> priorityGroupedTasks;
+    private final TreeMap<LocalDate, CompressedBitmap> deadlineGroupedTasks;
+
+    public TaskIndexes() {
+        statusGroupedTasks = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            statusGroupedTasks.put(status, new CompressedBitmap());
+        }
+        categoryGroupedTasks = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            categoryGroupedTasks.put(category, new CompressedBitmap());
+        }
+        ownerGroupedTasks = new HashMap<>();
+        priorityGroupedTasks = new TreeMap<>();
+        deadlineGroupedTasks = new TreeMap<>();
+    }
+
+    public void add(Task task) {
+        int id = task.getId();
+        allTasks.add(id);
+        statusGroupedTasks.get(task.getStatus()).add(id);
+        if (task.getCategory() != null) {
+            categoryGroupedTasks.get(task.getCategory()).add(id);
+        }
+        if (task.getOwner() != null) {
+            ownerGroupedTasks.computeIfAbsent(task.getOwner().getUsername(), owner -> new CompressedBitmap()).add(id);
+        }
+        if (task.getPriority() != null) {
+            priorityGroupedTasks.computeIfAbsent(task.getPriority(), priority -> new CompressedBitmap()).add(id);
+        }
+        if (task.getDeadline() != null) {
+            deadlineGroupedTasks.computeIfAbsent(task.getDeadline(), deadline -> new CompressedBitmap()).add(id);
+        }
+    }
+
+    public void remove(Task task) {
+        int id = task.getId();
+        allTasks.remove(id);
+        statusGroupedTasks.get(task.getStatus()).remove(id);
+        if (task.getCategory() != null) {
+            categoryGroupedTasks.get(task.getCategory()).remove(id);
+        }
+        if (task.getOwner() != null) {
+            removeFromGroup(ownerGroupedTasks, task.getOwner().getUsername(), id);
+        }
+        if (task.getPriority() != null) {
+            removeFromGroup(priorityGroupedTasks, task.getPriority(), id);
+        }
+        if (task.getDeadline() != null) {
+            removeFromGroup(deadlineGroupedTasks, task.getDeadline(), id);
+        }
+    }
+
+    /**
+     * Sets the task's status and moves it to the matching status bucket.
+     */
+    public void changeStatus(Task task, TaskStatus status) {
+        int id = task.getId();
+        statusGroupedTasks.get(task.getStatus()).remove(id);
+        task.setStatus(status);
+        statusGroupedTasks.get(status).add(id);
+    }
+
+    public CompressedBitmap getAllTasks() {
+        return allTasks;
+    }
+
+    /**
+     * Returns one access path per indexed attribute the filter pins, smallest first, so that AND-ing them in
+     * order shrinks the intermediate result as early as possible. Returns an empty list when the filter pins
+     * nothing. The cardinalities come from the bucket sizes; the union of a range is only built if its
+     * bitmap is asked for.
+     */
+    public List<AccessPath> accessPaths(ReportsFilterRequestDTO filter) {
+        List<AccessPath> paths = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            TaskStatus status = filter.getStatus();
+            paths.add(new AccessPath("status=" + status, List.of(statusGroupedTasks.get(status)),
+                    task -> task.getStatus() == status));
+        }
+        if (filter.getCategory() != null) {
+            Category category = filter.getCategory();
+            paths.add(new AccessPath("category=" + category, List.of(categoryGroupedTasks.get(category)),
+                    task -> task.getCategory() == category));
+        }
+        if (filter.getOwner() != null) {
+            String owner = filter.getOwner();
+            paths.add(new AccessPath("owner=" + owner, bucket(ownerGroupedTasks, owner),
+                    task -> task.getOwner() != null && owner.equals(task.getOwner().getUsername())));
+        }
+        if (filter.getPriority() != null) {
+            Integer priority = filter.getPriority();
+            paths.add(new AccessPath("priority=" + priority, bucket(priorityGroupedTasks, priority),
+                    task -> priority.equals(task.getPriority())));
+        }
+        if (filter.getDeadline() != null) {
+            LocalDate deadline = filter.getDeadline();
+            paths.add(new AccessPath("deadline=" + deadline, bucket(deadlineGroupedTasks, deadline),
+                    task -> deadline.equals(task.getDeadline())));
+        }
+        if (filter.getPriorityFrom() != null || filter.getPriorityTo() != null) {
+            Integer from = filter.getPriorityFrom();
+            Integer to = filter.getPriorityTo();
+            paths.add(new AccessPath("priority in [" + bound(from) + ", " + bound(to) + "]", range(priorityGroupedTasks, from, to),
+                    task -> between(task.getPriority(), from, to)));
+        }
+        if (filter.getDeadlineFrom() != null || filter.getDeadlineTo() != null) {
+            LocalDate from = filter.getDeadlineFrom();
+            LocalDate to = filter.getDeadlineTo();
+            paths.add(new AccessPath("deadline in [" + bound(from) + ", " + bound(to) + "]", range(deadlineGroupedTasks, from, to),
+                    task -> between(task.getDeadline(), from, to)));
+        }
+        paths.sort(Comparator.comparingInt(AccessPath::getCardinality));
+        return paths;
+    }
+
+    /**
+     * Counts the tasks of the given bitmap per value of the grouping attribute, without touching the tasks.
+     * Groups are keyed as by {@link GroupBy#keyOf}; the tasks without a value for the attribute are the ones
+     * in no bucket, so their count comes last from the cardinalities alone.
+     */
+    public Map<Object, Integer> countGroups(CompressedBitmap matching, GroupBy groupBy) {
+        Map<?, CompressedBitmap> groups;
+        switch (groupBy) {
+            case Status:
+                groups = statusGroupedTasks;
+                break;
+            case Category:
+                groups = categoryGroupedTasks;
+                break;
+            case Owner:
+                groups = ownerGroupedTasks;
+                break;
+            case Priority:
+                groups = priorityGroupedTasks;
+                break;
+            case Deadline:
+                groups = deadlineGroupedTasks;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported groupBy: " + groupBy);
+        }
+        Map<Object, Integer> counts = new LinkedHashMap<>();
+        int counted = 0;
+        for (Map.Entry<?, CompressedBitmap> group : groups.entrySet()) {
+            int count = CompressedBitmap.andCardinality(matching, group.getValue());
+            if (count > 0) {
+                counts.put(group.getKey(), count);
+                counted += count;
+            }
+        }
+        int missing = matching.getCardinality() - counted;
+        if (missing > 0) {
+            counts.put(GroupBy.NO_VALUE, missing);
+        }
+        return counts;
+    }
+
+    private static String bound(Object value) {
+        return value == null ? "*" : value.toString();
+    }
+
+    private static <K> Collection<CompressedBitmap> bucket(Map<K, CompressedBitmap> index, K key) {
+        CompressedBitmap bucket = index.get(key);
+        return bucket == null ? List.of() : List.of(bucket);
+    }
+
+    /**
+     * Returns every bucket with a key between the inclusive bounds; a null bound is open. The buckets are a
+     * view of the sorted index, so only the keys in range are visited.
+     */
+    private static <K extends Comparable<? super K>> Collection<CompressedBitmap> range(TreeMap<K, CompressedBitmap> index, K from, K to) {
+        if (from != null && to != null && from.compareTo(to) > 0) {
+            return List.of();
+        }
+        NavigableMap<K, CompressedBitmap> view = index;
+        if (from != null) {
+            view = view.tailMap(from, true);
+        }
+        if (to != null) {
+            view = view.headMap(to, true);
+        }
+        return view.values();
+    }
+
+    private static <K extends Comparable<? super K>> boolean between(K value, K from, K to) {
+        return value != null && (from == null || value.compareTo(from) >= 0) && (to == null || value.compareTo(to) <= 0);
+    }
+
+    /**
+     * The ids of the tasks matching one predicate of a filter: the index buckets holding them, which never
+     * share an id, and the predicate itself for checking single tasks.
+     */
+    public static final class AccessPath {
+        @Getter
+        private final String description;
+        @Getter
+        private final int cardinality;
+        private final Collection<CompressedBitmap> buckets;
+        private final Predicate<Task> predicate;
+        private CompressedBitmap bitmap;
+
+        private AccessPath(String description, Collection<CompressedBitmap> buckets, Predicate<Task> predicate) {
+            this.description = description;
+            this.buckets = buckets;
+            this.predicate = predicate;
+            int cardinality = 0;
+            for (CompressedBitmap bucket : buckets) {
+                cardinality += bucket.getCardinality();
+            }
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * Returns the ids matching the predicate. A single bucket is returned as is and must not be changed;
+         * several are OR-ed the first time they are asked for.
+         */
+        public CompressedBitmap getBitmap() {
+            if (bitmap == null) {
+                bitmap = buckets.size() == 1 ? buckets.iterator().next() : CompressedBitmap.or(buckets);
+            }
+            return bitmap;
+        }
+
+        public boolean matches(Task task) {
+            return predicate.test(task);
+        }
+    }
+
+    private static <K> void removeFromGroup(Map<K, CompressedBitmap> index, K key, int id) {
+        CompressedBitmap group = index.get(key);
+        if (group != null) {
+            group.remove(id);
+            if (group.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.enums.reports.SortBy;
+import com.omnik.projects.task_manager.exceptions.IllegalOperationException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * The ids of the live tasks in every report sort order: (priority, deadline, name) for
+ * {@link SortBy#Priority} and (deadline, priority, name) for {@link SortBy#Deadline}, missing values last.
+ * <p>
+ * Task names are unique, so both orders are total and a {@link SortKey} names exactly one position in
+ * them. A page of a sorted report is the range after the key of the last row the client saw, read off
+ * the sorted map, so serving a page costs about the page size and not the number of tasks.
+ * <p>
+ * Like {@link TaskIndexes}, the keys are read from the task itself, so a caller changing the priority or
+ * deadline must {@link #remove} the task before the change and {@link #add} it again afterwards. Not
+ * thread-safe; the DataStore lock guards it.
+ */
+public class TaskOrderIndex {
+
+    private final EnumMap<SortBy, TreeMap<SortKey, Integer>> orders;
+
+    public TaskOrderIndex() {
+        orders = new EnumMap<>(SortBy.class);
+        for (SortBy sortBy : SortBy.values()) {
+            orders.put(sortBy, new TreeMap<>(comparator(sortBy)));
+        }
+    }
+
+    public void add(Task task) {
+        SortKey key = SortKey.of(task);
+        orders.values().forEach(order -> order.put(key, task.getId()));
+    }
+
+    public void remove(Task task) {
+        SortKey key = SortKey.of(task);
+        orders.values().forEach(order -> order.remove(key));
+    }
+
+    /**
+     * Returns the task ids ordered by the given sort, starting right after the cursor, or from the first
+     * task if there is no cursor.
+     */
+    public Collection<Integer> after(SortBy sortBy, SortKey cursor) {
+        TreeMap<SortKey, Integer> order = orders.get(sortBy);
+        return cursor == null ? order.values() : order.tailMap(cursor, false).values();
+    }
+
+    public static Comparator<SortKey> comparator(SortBy sortBy) {
+        Comparator<SortKey> byPriority = Comparator.comparing(SortKey::getPriority, Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<SortKey> byDeadline = Comparator.comparing(SortKey::getDeadline, Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<SortKey> order = sortBy == SortBy.Priority ? byPriority.thenComparing(byDeadline) : byDeadline.thenComparing(byPriority);
+        return order.thenComparing(SortKey::getName);
+    }
+
+    /**
+     * The position of one task in the sort orders. It is also the keyset cursor handed to clients, encoded
+     * as an opaque URL-safe string.
+     */
+    @Getter
+    public static final class SortKey {
+        private static final char SEPARATOR = '|';
+
+        private final Integer priority;
+        private final LocalDate deadline;
+        private final String name;
+
+        private SortKey(Integer priority, LocalDate deadline, String name) {
+            this.priority = priority;
+            this.deadline = deadline;
+            this.name = name;
+        }
+
+        public static SortKey of(Task task) {
+            return new SortKey(task.getPriority(), task.getDeadline(), task.getName());
+        }
+
+        public String encode() {
+            String key = (priority == null ? "" : priority.toString()) + SEPARATOR
+                    + (deadline == null ? "" : deadline.toString()) + SEPARATOR + name;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static SortKey decode(String cursor) {
+            try {
+                String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int first = key.indexOf(SEPARATOR);
+                int second = key.indexOf(SEPARATOR, first + 1);
+                if (first < 0 || second < 0) {
+                    throw new IllegalOperationException("Invalid report cursor: " + cursor);
+                }
+                String priority = key.substring(0, first);
+                String deadline = key.substring(first + 1, second);
+                return new SortKey(priority.isEmpty() ? null : Integer.valueOf(priority),
+                        deadline.isEmpty() ? null : LocalDate.parse(deadline), key.substring(second + 1));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalOperationException("Invalid report cursor: " + cursor);
+            }
+        }
+    }
+}
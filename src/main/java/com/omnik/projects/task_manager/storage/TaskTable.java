@@ -0,0 +1,92 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.entities.Task;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The live tasks, stored in an array indexed by a dense {@code int} id.
+ * <p>
+ * A task gets a free id when it is inserted, and the id goes back to a free list when the task is
+ * removed, so the ids stay dense and can index plain arrays and bitmaps elsewhere. The name-to-id map is the
+ * only structure keyed by the task name.
+ * <p>
+ * {@link #insert} and {@link #remove} must be called under the DataStore write lock. {@link #get(String)}
+ * is lock-free: the slot is written before the name is published in the concurrent map, and a reader that
+ * races with the removal of a task and the reuse of its id is caught by comparing the names.
+ */
+public class TaskTable {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile Task[] tasks = new Task[INITIAL_CAPACITY];
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int highWaterMark;
+
+    /**
+     * Stores the task under a new id and sets it on the task. Returns false, without changing anything, if
+     * another task already has the name.
+     */
+    public boolean insert(Task task) {
+        if (ids.containsKey(task.getName())) {
+            return false;
+        }
+        int id = freeCount > 0 ? freeIds[--freeCount] : highWaterMark++;
+        Task[] slots = tasks;
+        if (id >= slots.length) {
+            slots = Arrays.copyOf(slots, slots.length << 1);
+        }
+        slots[id] = task;
+        tasks = slots;
+        task.setId(id);
+        ids.put(task.getName(), id);
+        return true;
+    }
+
+    public void remove(Task task) {
+        int id = task.getId();
+        ids.remove(task.getName());
+        tasks[id] = null;
+        task.setId(Task.NO_ID);
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount << 1);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    public Task get(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            return null;
+        }
+        Task task = tasks[id];
+        return task != null && task.getName().equals(name) ? task : null;
+    }
+
+    public Task get(int id) {
+        return tasks[id];
+    }
+
+    /**
+     * Returns true if the task is the one currently stored under its id.
+     */
+    public boolean contains(Task task) {
+        int id = task.getId();
+        Task[] slots = tasks;
+        return id >= 0 && id < slots.length && slots[id] == task;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Returns one more than the highest id ever handed out; every live task has an id below it.
+     */
+    public int idLimit() {
+        return highWaterMark;
+    }
+}
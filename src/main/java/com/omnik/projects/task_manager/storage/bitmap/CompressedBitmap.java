@@ -0,0 +1,484 @@
+package com.omnik.projects.task_manager.storage.bitmap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints, laid out like a Roaring bitmap.
+ * <p>
+ * Values are split by their high 16 bits into chunks of 65536. A chunk holding at most {@value #ARRAY_LIMIT}
+ * values stores them as a sorted {@code char[]}; a denser chunk switches to a fixed 8 KB bit array, and only
+ * switches back once removals bring it down to {@value #ARRAY_SHRINK_LIMIT}, so a chunk whose size hovers
+ * around the limit is not converted back and forth on every update. Sparse
+ * sets (one owner's tasks) therefore cost about two bytes per value and dense ones (a status shared by most
+ * tasks) one bit per value, and {@link #and}/{@link #or} work chunk by chunk without visiting single values
+ * where both sides are bit arrays.
+ * <p>
+ * {@link #add} and {@link #remove} mutate the bitmap; {@link #and} and {@link #or} return new bitmaps and
+ * leave their inputs untouched. Not thread-safe.
+ */
+public final class CompressedBitmap {
+
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int ARRAY_SHRINK_LIMIT = ARRAY_LIMIT / 2;
+    private static final int WORDS = 1024;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public CompressedBitmap() {
+        this(4);
+    }
+
+    private CompressedBitmap(int capacity) {
+        keys = new char[capacity];
+        containers = new Container[capacity];
+    }
+
+    public void add(int value) {
+        char high = (char) (value >>> 16);
+        int slot = Arrays.binarySearch(keys, 0, size, high);
+        if (slot >= 0) {
+            containers[slot] = containers[slot].add((char) value);
+        } else {
+            ArrayContainer container = new ArrayContainer(new char[4], 0);
+            container.add((char) value);
+            insert(-slot - 1, high, container);
+        }
+    }
+
+    public void remove(int value) {
+        char high = (char) (value >>> 16);
+        int slot = Arrays.binarySearch(keys, 0, size, high);
+        if (slot < 0) {
+            return;
+        }
+        Container container = containers[slot].remove((char) value);
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, slot + 1, keys, slot, size - slot - 1);
+            System.arraycopy(containers, slot + 1, containers, slot, size - slot - 1);
+            containers[--size] = null;
+        } else {
+            containers[slot] = container;
+        }
+    }
+
+    public boolean contains(int value) {
+        int slot = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return slot >= 0 && containers[slot].contains((char) value);
+    }
+
+    public int getCardinality() {
+        int cardinality = 0;
+        for (int slot = 0; slot < size; slot++) {
+            cardinality += containers[slot].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Calls the consumer with every value in ascending order.
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int slot = 0; slot < size; slot++) {
+            containers[slot].forEach(keys[slot] << 16, consumer);
+        }
+    }
+
+    public static CompressedBitmap and(CompressedBitmap left, CompressedBitmap right) {
+        CompressedBitmap result = new CompressedBitmap(Math.max(1, Math.min(left.size, right.size)));
+        int i = 0;
+        int j = 0;
+        while (i < left.size && j < right.size) {
+            if (left.keys[i] < right.keys[j]) {
+                i++;
+            } else if (left.keys[i] > right.keys[j]) {
+                j++;
+            } else {
+                Container container = left.containers[i].and(right.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.append(left.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cardinality of {@code and(left, right)} without building it.
+     */
+    public static int andCardinality(CompressedBitmap left, CompressedBitmap right) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.size && j < right.size) {
+            if (left.keys[i] < right.keys[j]) {
+                i++;
+            } else if (left.keys[i] > right.keys[j]) {
+                j++;
+            } else {
+                cardinality += left.containers[i].andCardinality(right.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    public static CompressedBitmap or(CompressedBitmap left, CompressedBitmap right) {
+        CompressedBitmap result = new CompressedBitmap(Math.max(1, left.size + right.size));
+        int i = 0;
+        int j = 0;
+        while (i < left.size || j < right.size) {
+            if (j == right.size || (i < left.size && left.keys[i] < right.keys[j])) {
+                result.append(left.keys[i], left.containers[i].copy());
+                i++;
+            } else if (i == left.size || left.keys[i] > right.keys[j]) {
+                result.append(right.keys[j], right.containers[j].copy());
+                j++;
+            } else {
+                result.append(left.keys[i], left.containers[i].or(right.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Unions any number of bitmaps, merging each one into a single result whose containers are private
+     * copies and can therefore be updated in place.
+     */
+    public static CompressedBitmap or(Iterable<CompressedBitmap> bitmaps) {
+        CompressedBitmap result = new CompressedBitmap();
+        for (CompressedBitmap bitmap : bitmaps) {
+            for (int j = 0; j < bitmap.size; j++) {
+                int slot = Arrays.binarySearch(result.keys, 0, result.size, bitmap.keys[j]);
+                if (slot >= 0) {
+                    result.containers[slot] = result.containers[slot].orInPlace(bitmap.containers[j]);
+                } else {
+                    result.insert(-slot - 1, bitmap.keys[j], bitmap.containers[j].copy());
+                }
+            }
+        }
+        return result;
+    }
+
+    private void append(char key, Container container) {
+        insert(size, key, container);
+    }
+
+    private void insert(int slot, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size << 1);
+            containers = Arrays.copyOf(containers, size << 1);
+        }
+        System.arraycopy(keys, slot, keys, slot + 1, size - slot);
+        System.arraycopy(containers, slot, containers, slot + 1, size - slot);
+        keys[slot] = key;
+        containers[slot] = container;
+        size++;
+    }
+
+    /**
+     * The values of one 65536-wide chunk. Mutators return the container to keep in the chunk's slot, which
+     * differs from {@code this} when the chunk switches representation.
+     */
+    private abstract static class Container {
+
+        abstract int cardinality();
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container orInPlace(Container other);
+
+        abstract Container copy();
+
+        abstract void forEach(int base, IntConsumer consumer);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int slot = Arrays.binarySearch(values, 0, cardinality, value);
+            if (slot >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                return toBitmap().add(value);
+            }
+            slot = -slot - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, cardinality << 1)));
+            }
+            System.arraycopy(values, slot, values, slot + 1, cardinality - slot);
+            values[slot] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int slot = Arrays.binarySearch(values, 0, cardinality, value);
+            if (slot >= 0) {
+                System.arraycopy(values, slot + 1, values, slot, cardinality - slot - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            if (cardinality + array.cardinality > ARRAY_LIMIT) {
+                BitmapContainer bitmap = toBitmap();
+                for (int j = 0; j < array.cardinality; j++) {
+                    bitmap.add(array.values[j]);
+                }
+                return bitmap;
+            }
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container orInPlace(Container other) {
+            return or(other);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(base | values[i]);
+            }
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer(new long[WORDS], 0);
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            int word = value >>> 6;
+            if ((words[word] & bit) == 0) {
+                words[word] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            int word = value >>> 6;
+            if ((words[word] & bit) != 0) {
+                words[word] &= ~bit;
+                cardinality--;
+                if (cardinality <= ARRAY_SHRINK_LIMIT) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[WORDS];
+            int count = 0;
+            for (int word = 0; word < WORDS; word++) {
+                result[word] = words[word] & otherWords[word];
+                count += Long.bitCount(result[word]);
+            }
+            BitmapContainer bitmap = new BitmapContainer(result, count);
+            return count <= ARRAY_LIMIT ? bitmap.toArray() : bitmap;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int word = 0; word < WORDS; word++) {
+                count += Long.bitCount(words[word] & otherWords[word]);
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            return copy().orInPlace(other);
+        }
+
+        @Override
+        Container orInPlace(Container other) {
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    add(array.values[i]);
+                }
+                return this;
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int word = 0; word < WORDS; word++) {
+                words[word] |= otherWords[word];
+                count += Long.bitCount(words[word]);
+            }
+            cardinality = count;
+            return this;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer consumer) {
+            for (int word = 0; word < WORDS; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    consumer.accept(base | (word << 6) | Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[cardinality];
+            int[] count = {0};
+            forEach(0, value -> values[count[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.omnik.projects.task_manager.storage.description;
+
+import com.omnik.projects.task_manager.entities.TaskDescription;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store for task descriptions in direct (off-heap) memory.
+ * <p>
+ * Texts are encoded as UTF-8 and written, each behind a 4-byte length, into slots carved from 1 MB direct
+ * buffers. Slot sizes are rounded up to a power of two so a freed slot can be reused by any later text of
+ * the same size class; a text larger than a buffer gets a buffer of its own. The store hands back a
+ * {@link TaskDescription} that only records where the text lives, so the heap holds a small fixed-size
+ * handle per task instead of the text, and the collector never scans or copies the bytes.
+ * <p>
+ * A slot is freed once its handle is unreachable: no live task, snapshot, undo or redo operation or report
+ * result refers to it any more. A {@link Cleaner} learns this from the collector and queues the slot; the
+ * next {@link #store} puts it back on its free list, or releases the buffer of an oversized text.
+ * <p>
+ * {@link #store} must be called under the DataStore write lock. Reading a handle is lock-free: the bytes
+ * are written before the handle exists, the handle reaches other threads through the task, which is
+ * published by the DataStore, and its slot is not reused while the handle can still be read.
+ */
+public class DescriptionStore {
+
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int MIN_SLOT_SHIFT = 4;
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int DEDICATED = -1;
+
+    private final Cleaner cleaner = Cleaner.create(runnable -> {
+        Thread thread = new Thread(runnable, "description-store-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Queue<Slot> released = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Slot>[] freeSlots = newFreeLists();
+    private final ArrayDeque<Integer> freeChunks = new ArrayDeque<>();
+    private final AtomicLong liveBytes = new AtomicLong();
+
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private int appendChunk = -1;
+    private int writeOffset = CHUNK_SIZE;
+    private volatile long retainedBytes;
+
+    public TaskDescription store(String text) {
+        if (text == null) {
+            return null;
+        }
+        reclaim();
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int required = LENGTH_BYTES + bytes.length;
+        Slot slot = required > CHUNK_SIZE ? allocateDedicated(required) : allocate(sizeClass(required));
+
+        ByteBuffer buffer = chunks[slot.chunk].duplicate();
+        buffer.position(slot.offset);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+
+        StoredDescription description = new StoredDescription(slot);
+        cleaner.register(description, slot);
+        liveBytes.addAndGet(slot.capacity);
+        return description;
+    }
+
+    /**
+     * Returns the bytes held by descriptions that can still be read.
+     */
+    public long getLiveBytes() {
+        return liveBytes.get();
+    }
+
+    /**
+     * Returns the direct memory held by the store, live or free.
+     */
+    public long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    private void reclaim() {
+        Slot slot;
+        while ((slot = released.poll()) != null) {
+            if (slot.sizeClass == DEDICATED) {
+                ByteBuffer[] current = Arrays.copyOf(chunks, chunks.length);
+                current[slot.chunk] = null;
+                chunks = current;
+                freeChunks.push(slot.chunk);
+                retainedBytes -= slot.capacity;
+            } else {
+                freeSlots[slot.sizeClass].push(slot);
+            }
+        }
+    }
+
+    private Slot allocate(int sizeClass) {
+        Slot free = freeSlots[sizeClass].poll();
+        if (free != null) {
+            return new Slot(free.chunk, free.offset, sizeClass, free.capacity);
+        }
+        int capacity = 1 << sizeClass;
+        if (appendChunk < 0 || capacity > CHUNK_SIZE - writeOffset) {
+            splitRemainder();
+            appendChunk = addChunk(ByteBuffer.allocateDirect(CHUNK_SIZE));
+            writeOffset = 0;
+        }
+        Slot slot = new Slot(appendChunk, writeOffset, sizeClass, capacity);
+        writeOffset += capacity;
+        return slot;
+    }
+
+    /**
+     * Hands the unused end of the append buffer to the free lists before a new buffer is started. Every slot is
+     * a multiple of the smallest one, so the remainder splits exactly into power-of-two slots.
+     */
+    private void splitRemainder() {
+        if (appendChunk < 0) {
+            return;
+        }
+        for (int sizeClass = CHUNK_SHIFT - 1; sizeClass >= MIN_SLOT_SHIFT; sizeClass--) {
+            int capacity = 1 << sizeClass;
+            if (CHUNK_SIZE - writeOffset >= capacity) {
+                freeSlots[sizeClass].push(new Slot(appendChunk, writeOffset, sizeClass, capacity));
+                writeOffset += capacity;
+            }
+        }
+    }
+
+    private Slot allocateDedicated(int required) {
+        return new Slot(addChunk(ByteBuffer.allocateDirect(required)), 0, DEDICATED, required);
+    }
+
+    private int addChunk(ByteBuffer buffer) {
+        ByteBuffer[] current;
+        int chunk;
+        if (freeChunks.isEmpty()) {
+            current = Arrays.copyOf(chunks, chunks.length + 1);
+            chunk = current.length - 1;
+        } else {
+            current = Arrays.copyOf(chunks, chunks.length);
+            chunk = freeChunks.pop();
+        }
+        current[chunk] = buffer;
+        chunks = current;
+        retainedBytes += buffer.capacity();
+        return chunk;
+    }
+
+    private String read(int chunk, int offset) {
+        ByteBuffer buffer = chunks[chunk].duplicate();
+        int length = buffer.getInt(offset);
+        byte[] bytes = new byte[length];
+        buffer.position(offset + LENGTH_BYTES);
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int sizeClass(int required) {
+        return Math.max(MIN_SLOT_SHIFT, 32 - Integer.numberOfLeadingZeros(required - 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<Slot>[] newFreeLists() {
+        ArrayDeque<Slot>[] lists = new ArrayDeque[CHUNK_SHIFT + 1];
+        for (int sizeClass = 0; sizeClass < lists.length; sizeClass++) {
+            lists[sizeClass] = new ArrayDeque<>();
+        }
+        return lists;
+    }
+
+    /**
+     * Where one text lives. It is also the cleaning action of its handle, so it must never refer to the handle.
+     */
+    private final class Slot implements Runnable {
+        private final int chunk;
+        private final int offset;
+        private final int sizeClass;
+        private final int capacity;
+
+        private Slot(int chunk, int offset, int sizeClass, int capacity) {
+            this.chunk = chunk;
+            this.offset = offset;
+            this.sizeClass = sizeClass;
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void run() {
+            liveBytes.addAndGet(-capacity);
+            released.add(this);
+        }
+    }
+
+    private final class StoredDescription implements TaskDescription {
+        private final Slot slot;
+
+        private StoredDescription(Slot slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public String text() {
+            try {
+                return read(slot.chunk, slot.offset);
+            } finally {
+                Reference.reachabilityFence(this);
+            }
+        }
+
+        @Override
+        public boolean isStored() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.omnik.projects.task_manager.storage.journal;
+
+/**
+ * When the {@link Journal} forces its records to the disk, and what a mutation waits for before it returns.
+ */
+public enum FsyncPolicy {
+    /**
+     * Every batch is forced before the mutations in it return. Nothing acknowledged is lost on a power failure.
+     */
+    Always,
+    /**
+     * Mutations return once their batch is written to the file; the file is forced at most once per interval.
+     * A process crash loses nothing, a power failure loses at most the last interval.
+     */
+    Interval,
+    /**
+     * Mutations return once their batch is written to the file, which is never forced; the operating system
+     * flushes it when it likes.
+     */
+    Never
+}
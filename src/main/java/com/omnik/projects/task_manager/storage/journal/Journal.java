@@ -0,0 +1,282 @@
+package com.omnik.projects.task_manager.storage.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of DataStore mutations in one file.
+ * <p>
+ * A record is framed as its 4-byte length, the CRC32 of its type and payload, the 1-byte
+ * {@link RecordType} code and the payload. The position after a record in the file is its log sequence
+ * number (LSN).
+ * <p>
+ * {@link #append} only copies the framed record into an in-memory batch, so it is cheap enough to call
+ * under the DataStore write lock. One flusher thread swaps the batch for an empty one, writes it through
+ * the {@link FileChannel} and forces it as the {@link FsyncPolicy} asks. Callers wait in
+ * {@link #awaitDurable} after they have released their locks; everything appended while one batch is being
+ * forced goes into the next one, so concurrent mutations share an fsync (group commit) instead of paying
+ * one each.
+ * <p>
+ * On startup {@link #replay} hands every intact record to the DataStore. A record cut short or failing its
+ * checksum can only be the tail of a write that never completed; it and anything after it are dropped.
+ */
+@Slf4j
+public class Journal {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + 1;
+    private static final int MAX_RECORD_BYTES = 64 << 20;
+    private static final int INITIAL_BATCH_BYTES = 64 << 10;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final CRC32 checksum = new CRC32();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchAppended = lock.newCondition();
+    private final Condition batchFlushed = lock.newCondition();
+    private ByteBuffer batch = ByteBuffer.allocate(INITIAL_BATCH_BYTES);
+    private ByteBuffer spareBatch = ByteBuffer.allocate(INITIAL_BATCH_BYTES);
+    private long appendedLsn;
+    private volatile long writtenLsn;
+    private volatile long durableLsn;
+    private volatile IOException failure;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public Journal(Path path, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) throws IOException {
+        this.path = path;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, fsyncIntervalMillis));
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Hands every intact record to the consumer in file order, cuts off a torn tail and starts the flusher.
+     * Must be called once, before the first {@link #append}. The reader is only valid during the call.
+     *
+     * @return the number of records replayed
+     */
+    public int replay(BiConsumer<RecordType, RecordReader> consumer) throws IOException {
+        long fileSize = channel.size();
+        long validEnd = 0;
+        int records = 0;
+        byte[] record = new byte[256];
+        InputStream stream = Channels.newInputStream(channel.position(0));
+        DataInputStream input = new DataInputStream(new BufferedInputStream(stream, INITIAL_BATCH_BYTES));
+        while (validEnd < fileSize) {
+            int length;
+            int expectedChecksum;
+            try {
+                length = input.readInt();
+                expectedChecksum = input.readInt();
+                if (length < 1 || length > MAX_RECORD_BYTES) {
+                    break;
+                }
+                if (record.length < length) {
+                    record = new byte[Math.max(length, record.length * 2)];
+                }
+                input.readFully(record, 0, length);
+            } catch (EOFException e) {
+                break;
+            }
+            checksum.reset();
+            checksum.update(record, 0, length);
+            RecordType type = RecordType.of(record[0]);
+            if ((int) checksum.getValue() != expectedChecksum || type == null) {
+                break;
+            }
+            consumer.accept(type, new RecordReader(record, 1));
+            validEnd += HEADER_BYTES - 1 + length;
+            records++;
+        }
+        if (validEnd < fileSize) {
+            log.warn("Journal {} has a torn or corrupt tail, dropping {} bytes after offset {}", path, fileSize - validEnd, validEnd);
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        appendedLsn = validEnd;
+        writtenLsn = validEnd;
+        durableLsn = validEnd;
+        running = true;
+        flusher = new Thread(this::flush, "datastore-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Replayed {} journal records ({} bytes) from {}", records, validEnd, path);
+        return records;
+    }
+
+    /**
+     * Frames the record into the current batch and returns its LSN. Records are appended in call order.
+     */
+    public long append(RecordWriter record) {
+        int length = 1 + record.getSize();
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new IllegalStateException("The journal could not be written", failure);
+            } else if (!running) {
+                throw new IllegalStateException("The journal is not open for appends");
+            }
+            if (batch.remaining() < HEADER_BYTES + record.getSize()) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(batch.capacity() * 2, batch.position() + HEADER_BYTES + record.getSize()));
+                batch.flip();
+                batch = larger.put(batch);
+            }
+            checksum.reset();
+            checksum.update(record.getType().getCode());
+            checksum.update(record.getBytes(), 0, record.getSize());
+            batch.putInt(length)
+                    .putInt((int) checksum.getValue())
+                    .put(record.getType().getCode())
+                    .put(record.getBytes(), 0, record.getSize());
+            appendedLsn += HEADER_BYTES + record.getSize();
+            batchAppended.signal();
+            return appendedLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record with the given LSN is as durable as the fsync policy promises: forced to the
+     * disk with {@link FsyncPolicy#Always}, written to the file otherwise.
+     *
+     * @throws IllegalStateException if the journal could not be written
+     */
+    public void awaitDurable(long lsn) {
+        if (isDurable(lsn)) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (!isDurable(lsn)) {
+                if (failure != null) {
+                    throw new IllegalStateException("The journal could not be written", failure);
+                }
+                batchFlushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes and forces everything appended so far, stops the flusher and closes the file.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            batchAppended.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (flusher != null) {
+                flusher.join();
+            }
+            channel.close();
+            log.info("Journal {} closed at LSN {}", path, durableLsn);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Error while closing journal {}. Error: {}", path, e.getMessage(), e);
+        }
+    }
+
+    private boolean isDurable(long lsn) {
+        return (fsyncPolicy == FsyncPolicy.Always ? durableLsn : writtenLsn) >= lsn;
+    }
+
+    private void flush() {
+        long lastForce = System.nanoTime();
+        while (true) {
+            ByteBuffer flushing;
+            long flushedLsn;
+            boolean stopping;
+            lock.lock();
+            try {
+                while (running && batch.position() == 0 && !isForceDue(lastForce)) {
+                    if (fsyncPolicy == FsyncPolicy.Interval && durableLsn < writtenLsn) {
+                        batchAppended.awaitNanos(fsyncIntervalNanos - (System.nanoTime() - lastForce));
+                    } else {
+                        batchAppended.awaitUninterruptibly();
+                    }
+                }
+                stopping = !running;
+                flushing = batch;
+                batch = spareBatch;
+                spareBatch = flushing;
+                flushedLsn = appendedLsn;
+            } catch (InterruptedException e) {
+                continue;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                flushing.flip();
+                long position = flushedLsn - flushing.remaining();
+                while (flushing.hasRemaining()) {
+                    position += channel.write(flushing, position);
+                }
+                flushing.clear();
+                boolean force = fsyncPolicy == FsyncPolicy.Always || stopping || isForceDue(lastForce);
+                if (force && durableLsn < flushedLsn) {
+                    channel.force(false);
+                    lastForce = System.nanoTime();
+                }
+                lock.lock();
+                try {
+                    writtenLsn = flushedLsn;
+                    if (force) {
+                        durableLsn = flushedLsn;
+                    }
+                    batchFlushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (IOException e) {
+                log.error("Error while writing journal {}. Error: {}", path, e.getMessage(), e);
+                lock.lock();
+                try {
+                    failure = e;
+                    running = false;
+                    batchFlushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            if (stopping) {
+                return;
+            }
+        }
+    }
+
+    private boolean isForceDue(long lastForce) {
+        return fsyncPolicy == FsyncPolicy.Interval && durableLsn < writtenLsn && System.nanoTime() - lastForce >= fsyncIntervalNanos;
+    }
+}
@@ -0,0 +1,63 @@
+package com.omnik.projects.task_manager.storage.journal;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Reads back the payload of one journal record, value by value, in the order {@link RecordWriter} wrote it.
+ */
+public final class RecordReader {
+
+    private final byte[] bytes;
+    private int position;
+
+    RecordReader(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        this.position = offset;
+    }
+
+    public int readCount() {
+        return (int) readVarLong();
+    }
+
+    public Integer readInteger() {
+        long value = readVarLong();
+        return value == 0 ? null : (int) unZigZag(value - 1);
+    }
+
+    public LocalDate readDate() {
+        long value = readVarLong();
+        return value == 0 ? null : LocalDate.ofEpochDay(unZigZag(value - 1));
+    }
+
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        int value = (int) readVarLong();
+        return value == 0 ? null : values[value - 1];
+    }
+
+    public String readString() {
+        int length = (int) readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        String value = new String(bytes, position, length - 1, StandardCharsets.UTF_8);
+        position += length - 1;
+        return value;
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = bytes[position++];
+            value |= (long) (next & 0x7F) << shift;
+            shift += 7;
+        } while (next < 0);
+        return value;
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
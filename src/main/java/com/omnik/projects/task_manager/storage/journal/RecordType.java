@@ -0,0 +1,47 @@
+package com.omnik.projects.task_manager.storage.journal;
+
+/**
+ * The kinds of DataStore mutations in the journal. Each has a fixed code that is written to the file, so
+ * codes must never be reused or changed.
+ * <p>
+ * {@link #TaskDequeued} is only replayed: earlier versions wrote it, followed by a {@link #TaskStatusChanged},
+ * when a task was processed. A processed task is now one {@link #TaskProcessed} record carrying its status.
+ */
+public enum RecordType {
+    UserAdded(1),
+    TaskAdded(2),
+    TaskDeleted(3),
+    TaskScheduled(4),
+    TaskBuffered(5),
+    TasksPlanned(6),
+    TaskAttributesUpdated(7),
+    TaskDequeued(8),
+    TaskStatusChanged(9),
+    TaskDependenciesAdded(10),
+    TaskProcessed(11);
+
+    private static final RecordType[] BY_CODE = new RecordType[16];
+
+    static {
+        for (RecordType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    RecordType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the type with the given code, or null if there is none.
+     */
+    public static RecordType of(byte code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.omnik.projects.task_manager.storage.journal;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Encodes the payload of one journal record into a reusable byte array.
+ * <p>
+ * Numbers are zig-zag varints, so small priorities and counts take one byte. Nullable values are shifted
+ * by one and written as 0 when absent. Strings are UTF-8 behind their nullable length, dates are their
+ * nullable epoch day and enums their nullable ordinal, so enum constants may only ever be appended.
+ * {@link RecordReader} reads the values back in the same order.
+ */
+public final class RecordWriter {
+
+    private RecordType type;
+    private byte[] bytes = new byte[256];
+    private int size;
+
+    /**
+     * Starts a new record, dropping the previous payload.
+     */
+    public RecordWriter reset(RecordType type) {
+        this.type = type;
+        this.size = 0;
+        return this;
+    }
+
+    public RecordWriter writeCount(int count) {
+        writeVarLong(count);
+        return this;
+    }
+
+    public RecordWriter writeInteger(Integer value) {
+        writeVarLong(value == null ? 0 : zigZag(value) + 1);
+        return this;
+    }
+
+    public RecordWriter writeDate(LocalDate date) {
+        writeVarLong(date == null ? 0 : zigZag(date.toEpochDay()) + 1);
+        return this;
+    }
+
+    public RecordWriter writeEnum(Enum<?> value) {
+        writeVarLong(value == null ? 0 : value.ordinal() + 1);
+        return this;
+    }
+
+    public RecordWriter writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return this;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(utf8.length + 1L);
+        ensureCapacity(utf8.length);
+        System.arraycopy(utf8, 0, bytes, size, utf8.length);
+        size += utf8.length;
+        return this;
+    }
+
+    RecordType getType() {
+        return type;
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
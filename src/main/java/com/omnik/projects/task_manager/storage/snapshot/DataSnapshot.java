@@ -0,0 +1,89 @@
+package com.omnik.projects.task_manager.storage.snapshot;
+
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.entities.User;
+import lombok.Getter;
+
+import java.util.Objects;
+
+/**
+ * Immutable point-in-time view of the tasks, the users and the priority index.
+ * <p>
+ * Tasks are stored as frozen copies taken when the snapshot was published, so a reader iterating an old
+ * snapshot keeps seeing the values as of that moment even while the live tasks are being updated.
+ * Every {@code with...} method returns a new snapshot that shares all unchanged structure with this one.
+ */
+@Getter
+public final class DataSnapshot {
+
+    private static final DataSnapshot EMPTY = new DataSnapshot(0, PersistentHashMap.empty(), PersistentHashMap.empty(), PersistentHashMap.empty());
+
+    private final long version;
+    private final PersistentHashMap<String, Task> tasks;
+    private final PersistentHashMap<String, User> users;
+    private final PersistentHashMap<Integer, PersistentHashMap<String, Task>> priorityGroupedTasks;
+
+    private DataSnapshot(long version, PersistentHashMap<String, Task> tasks, PersistentHashMap<String, User> users,
+                         PersistentHashMap<Integer, PersistentHashMap<String, Task>> priorityGroupedTasks) {
+        this.version = version;
+        this.tasks = tasks;
+        this.users = users;
+        this.priorityGroupedTasks = priorityGroupedTasks;
+    }
+
+    public static DataSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Adds the task, or replaces the previously published copy of it.
+     */
+    public DataSnapshot withTask(Task liveTask) {
+        Task frozen = new Task(liveTask);
+        Task previous = tasks.get(frozen.getName());
+        PersistentHashMap<Integer, PersistentHashMap<String, Task>> priorities = priorityGroupedTasks;
+        if (previous != null && previous.getPriority() != null && !Objects.equals(previous.getPriority(), frozen.getPriority())) {
+            priorities = removeFromPriorityGroup(priorities, previous);
+        }
+        if (frozen.getPriority() != null) {
+            PersistentHashMap<String, Task> group = priorities.get(frozen.getPriority());
+            group = group == null ? PersistentHashMap.empty() : group;
+            priorities = priorities.plus(frozen.getPriority(), group.plus(frozen.getName(), frozen));
+        }
+        return new DataSnapshot(version + 1, tasks.plus(frozen.getName(), frozen), users, priorities);
+    }
+
+    public DataSnapshot withoutTask(String taskName) {
+        Task previous = tasks.get(taskName);
+        if (previous == null) {
+            return this;
+        }
+        PersistentHashMap<Integer, PersistentHashMap<String, Task>> priorities = priorityGroupedTasks;
+        if (previous.getPriority() != null) {
+            priorities = removeFromPriorityGroup(priorities, previous);
+        }
+        return new DataSnapshot(version + 1, tasks.minus(taskName), users, priorities);
+    }
+
+    public DataSnapshot withUser(User user) {
+        return new DataSnapshot(version + 1, tasks, users.plus(user.getUsername(), user), priorityGroupedTasks);
+    }
+
+    /**
+     * Returns the same content under the next version. Used when state read alongside the snapshot, such as
+     * the dependency edges, changes without any task changing, so version-based validators still move on.
+     */
+    public DataSnapshot withNextVersion() {
+        return new DataSnapshot(version + 1, tasks, users, priorityGroupedTasks);
+    }
+
+    private static PersistentHashMap<Integer, PersistentHashMap<String, Task>> removeFromPriorityGroup(
+            PersistentHashMap<Integer, PersistentHashMap<String, Task>> priorities, Task task) {
+        PersistentHashMap<String, Task> group = priorities.get(task.getPriority());
+        if (group == null) {
+            return priorities;
+        }
+        group = group.minus(task.getName());
+        return group.isEmpty() ? priorities.minus(task.getPriority()) : priorities.plus(task.getPriority(), group);
+    }
+}
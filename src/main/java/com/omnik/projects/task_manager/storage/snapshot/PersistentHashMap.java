@@ -0,0 +1,413 @@
+package com.omnik.projects.task_manager.storage.snapshot;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable hash array mapped trie.
+ * <p>
+ * {@link #plus} and {@link #minus} return a new map that shares every untouched branch with the original,
+ * so an update copies at most one 32-way node per level (seven levels for a 32 bit hash). Instances can
+ * be handed to any number of threads and iterated without locks.
+ */
+public final class PersistentHashMap<K, V> implements Iterable<Map.Entry<K, V>> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MAX_DEPTH = 8;
+    private static final Object NOT_FOUND = new Object();
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (root == null) {
+            return null;
+        }
+        Object value = root.find(0, hash(key), key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    public boolean containsKey(Object key) {
+        return root != null && root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        boolean[] added = new boolean[1];
+        Leaf leaf = new Leaf(hash(key), key, value);
+        Node newRoot = root == null ? BitmapNode.EMPTY.assoc(0, leaf, added) : root.assoc(0, leaf, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (root == null) {
+            return this;
+        }
+        Node newRoot = root.dissoc(0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (Map.Entry<K, V> entry : this) {
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public Stream<V> values() {
+        return StreamSupport.stream(spliterator(), false).map(Map.Entry::getValue);
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+    }
+
+    @Override
+    public Spliterator<Map.Entry<K, V>> spliterator() {
+        return Spliterators.spliterator(iterator(), size, Spliterator.SIZED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+
+    private static int hash(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private abstract static class Node {
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node assoc(int shift, Leaf leaf, boolean[] added);
+
+        /**
+         * Returns the same instance when the key is absent and null when the node became empty.
+         */
+        abstract Node dissoc(int shift, int hash, Object key);
+
+        abstract Object[] children();
+
+        /**
+         * Returns the only leaf of this node, or null if it holds anything else.
+         */
+        abstract Leaf singleLeaf();
+    }
+
+    private static final class Leaf implements Map.Entry<Object, Object> {
+        private final int hash;
+        private final Object key;
+        private final Object value;
+
+        private Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        private BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            Object child = array[index(bit)];
+            if (child instanceof Leaf) {
+                Leaf leaf = (Leaf) child;
+                return leaf.hash == hash && Objects.equals(leaf.key, key) ? leaf.value : NOT_FOUND;
+            }
+            return ((Node) child).find(shift + BITS, hash, key);
+        }
+
+        @Override
+        Node assoc(int shift, Leaf leaf, boolean[] added) {
+            int bit = bit(leaf.hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newArray = new Object[array.length + 1];
+                System.arraycopy(array, 0, newArray, 0, index);
+                newArray[index] = leaf;
+                System.arraycopy(array, index, newArray, index + 1, array.length - index);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+            Object child = array[index];
+            Object newChild;
+            if (child instanceof Leaf) {
+                Leaf existing = (Leaf) child;
+                if (existing.hash == leaf.hash && Objects.equals(existing.key, leaf.key)) {
+                    if (existing.value == leaf.value) {
+                        return this;
+                    }
+                    newChild = leaf;
+                } else {
+                    added[0] = true;
+                    newChild = merge(shift + BITS, existing, leaf);
+                }
+            } else {
+                newChild = ((Node) child).assoc(shift + BITS, leaf, added);
+                if (newChild == child) {
+                    return this;
+                }
+            }
+            Object[] newArray = array.clone();
+            newArray[index] = newChild;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        @Override
+        Node dissoc(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object child = array[index];
+            Object replacement;
+            if (child instanceof Leaf) {
+                Leaf leaf = (Leaf) child;
+                if (leaf.hash != hash || !Objects.equals(leaf.key, key)) {
+                    return this;
+                }
+                replacement = null;
+            } else {
+                Node newChild = ((Node) child).dissoc(shift + BITS, hash, key);
+                if (newChild == child) {
+                    return this;
+                }
+                Leaf single = newChild == null ? null : newChild.singleLeaf();
+                replacement = single != null ? single : newChild;
+            }
+            if (replacement != null) {
+                Object[] newArray = array.clone();
+                newArray[index] = replacement;
+                return new BitmapNode(bitmap, newArray);
+            }
+            if (array.length == 1) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 1];
+            System.arraycopy(array, 0, newArray, 0, index);
+            System.arraycopy(array, index + 1, newArray, index, array.length - index - 1);
+            return new BitmapNode(bitmap & ~bit, newArray);
+        }
+
+        @Override
+        Object[] children() {
+            return array;
+        }
+
+        @Override
+        Leaf singleLeaf() {
+            return array.length == 1 && array[0] instanceof Leaf ? (Leaf) array[0] : null;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private static Node merge(int shift, Leaf first, Leaf second) {
+            if (first.hash == second.hash) {
+                return new CollisionNode(first.hash, new Leaf[]{first, second});
+            }
+            int firstBit = bit(first.hash, shift);
+            int secondBit = bit(second.hash, shift);
+            if (firstBit == secondBit) {
+                return new BitmapNode(firstBit, new Object[]{merge(shift + BITS, first, second)});
+            }
+            Object[] array = Integer.compareUnsigned(firstBit, secondBit) < 0
+                    ? new Object[]{first, second}
+                    : new Object[]{second, first};
+            return new BitmapNode(firstBit | secondBit, array);
+        }
+    }
+
+    /**
+     * Holds keys whose full 32 bit hashes are equal.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+        private final Leaf[] leaves;
+
+        private CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            if (hash == this.hash) {
+                for (Leaf leaf : leaves) {
+                    if (Objects.equals(leaf.key, key)) {
+                        return leaf.value;
+                    }
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        Node assoc(int shift, Leaf leaf, boolean[] added) {
+            if (leaf.hash != hash) {
+                BitmapNode wrapper = new BitmapNode(BitmapNode.bit(hash, shift), new Object[]{this});
+                return wrapper.assoc(shift, leaf, added);
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (Objects.equals(leaves[i].key, leaf.key)) {
+                    if (leaves[i].value == leaf.value) {
+                        return this;
+                    }
+                    Leaf[] newLeaves = leaves.clone();
+                    newLeaves[i] = leaf;
+                    return new CollisionNode(hash, newLeaves);
+                }
+            }
+            Leaf[] newLeaves = Arrays.copyOf(leaves, leaves.length + 1);
+            newLeaves[leaves.length] = leaf;
+            added[0] = true;
+            return new CollisionNode(hash, newLeaves);
+        }
+
+        @Override
+        Node dissoc(int shift, int hash, Object key) {
+            if (hash != this.hash) {
+                return this;
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (Objects.equals(leaves[i].key, key)) {
+                    if (leaves.length == 1) {
+                        return null;
+                    }
+                    Leaf[] newLeaves = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, newLeaves, 0, i);
+                    System.arraycopy(leaves, i + 1, newLeaves, i, leaves.length - i - 1);
+                    return new CollisionNode(hash, newLeaves);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Object[] children() {
+            return leaves;
+        }
+
+        @Override
+        Leaf singleLeaf() {
+            return leaves.length == 1 ? leaves[0] : null;
+        }
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth = -1;
+        private Leaf next;
+
+        private EntryIterator(Node root) {
+            if (root != null) {
+                push(root.children());
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf current = next;
+            advance();
+            return (Map.Entry<K, V>) (Map.Entry<?, ?>) current;
+        }
+
+        private void push(Object[] children) {
+            depth++;
+            arrays[depth] = children;
+            positions[depth] = 0;
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                if (positions[depth] >= array.length) {
+                    arrays[depth--] = null;
+                    continue;
+                }
+                Object child = array[positions[depth]++];
+                if (child instanceof Leaf) {
+                    next = (Leaf) child;
+                    return;
+                }
+                push(((Node) child).children());
+            }
+        }
+    }
+}
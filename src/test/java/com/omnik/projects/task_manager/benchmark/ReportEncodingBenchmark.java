@@ -0,0 +1,86 @@
+package com.omnik.projects.task_manager.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
+import com.omnik.projects.task_manager.dto.response.TaskSummaryDTO;
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.entities.User;
+import com.omnik.projects.task_manager.enums.Category;
+import com.omnik.projects.task_manager.enums.TaskStatus;
+import com.omnik.projects.task_manager.enums.reports.TaskField;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Compares the payload size and the encode and decode time of a grouped report in JSON, Smile and CBOR.
+ * <p>
+ * The report has the shape of {@code POST /api/v1/reports} grouped by status: the response wrapper around
+ * a map of status to task summaries. Decoding reads the payload into a tree, as a generic client would.
+ * Run it with the test classpath, optionally passing the number of tasks (default 10000):
+ * <pre>
+ * java -cp target/classes:target/test-classes:&lt;dependencies&gt; com.omnik.projects.task_manager.benchmark.ReportEncodingBenchmark 10000
+ * </pre>
+ */
+public class ReportEncodingBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        ApiResponseDTO<?> report = report(taskCount);
+
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("smile", Jackson2ObjectMapperBuilder.smile().build());
+        mappers.put("cbor", Jackson2ObjectMapperBuilder.cbor().build());
+
+        System.out.printf("Report of %d tasks%n", taskCount);
+        System.out.printf("%-6s %12s %12s %12s%n", "format", "bytes", "encode ms", "decode ms");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] payload = mapper.writeValueAsBytes(report);
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                mapper.writeValueAsBytes(report);
+                mapper.readValue(payload, JsonNode.class);
+            }
+            long encodeNanos = 0;
+            long decodeNanos = 0;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                long start = System.nanoTime();
+                mapper.writeValueAsBytes(report);
+                long encoded = System.nanoTime();
+                mapper.readValue(payload, JsonNode.class);
+                decodeNanos += System.nanoTime() - encoded;
+                encodeNanos += encoded - start;
+            }
+            System.out.printf("%-6s %12d %12.2f %12.2f%n", entry.getKey(), payload.length,
+                    encodeNanos / 1e6 / MEASURED_ROUNDS, decodeNanos / 1e6 / MEASURED_ROUNDS);
+        }
+    }
+
+    private static ApiResponseDTO<?> report(int taskCount) {
+        Random random = new Random(42);
+        TaskStatus[] statuses = TaskStatus.values();
+        Category[] categories = Category.values();
+        User[] owners = new User[20];
+        for (int i = 0; i < owners.length; i++) {
+            owners[i] = new User("user" + i, "First" + i, "Last" + i);
+        }
+        Set<TaskField> fields = EnumSet.allOf(TaskField.class);
+        Map<TaskStatus, List<TaskSummaryDTO>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task("task-" + i, "Description of task " + i, random.nextInt(10),
+                    categories[random.nextInt(categories.length)], LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365)),
+                    owners[random.nextInt(owners.length)]);
+            task.setStatus(statuses[random.nextInt(statuses.length)]);
+            List<String> dependencies = i < 2 ? Collections.emptyList() : List.of("task-" + (i - 1), "task-" + (i - 2));
+            groups.computeIfAbsent(task.getStatus(), status -> new ArrayList<>()).add(new TaskSummaryDTO(task, dependencies, fields));
+        }
+        return new ApiResponseDTO<>(groups, null, HttpStatus.OK, "Reports fetched successfully", false);
+    }
+}
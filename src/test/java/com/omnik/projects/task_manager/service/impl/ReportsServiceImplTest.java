@@ -0,0 +1,146 @@
+package com.omnik.projects.task_manager.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
+import com.omnik.projects.task_manager.dto.response.ApiResponseDTO;
+import com.omnik.projects.task_manager.dto.response.ReportPlanDTO;
+import com.omnik.projects.task_manager.dto.response.TaskSummaryDTO;
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.entities.User;
+import com.omnik.projects.task_manager.enums.Category;
+import com.omnik.projects.task_manager.enums.Role;
+import com.omnik.projects.task_manager.enums.TaskStatus;
+import com.omnik.projects.task_manager.enums.reports.GroupBy;
+import com.omnik.projects.task_manager.enums.reports.SortBy;
+import com.omnik.projects.task_manager.storage.DataStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportsServiceImplTest {
+
+    private static final String ADMIN = "admin";
+    private static final ReportsFilterRequestDTO ALL = new ReportsFilterRequestDTO(null, null, null, null, null, null, null, null, null);
+
+    private final List<DataStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        opened.forEach(DataStore::shutdown);
+    }
+
+    @Test
+    void rowColumnarAndParallelReportsReturnTheSameGroups() {
+        ReportsServiceImpl rows = service(open(false, 0));
+        ReportsServiceImpl columns = service(open(true, 0));
+        ReportsServiceImpl parallel = service(open(false, 1));
+
+        for (GroupBy groupBy : GroupBy.values()) {
+            for (SortBy sortBy : Arrays.asList(null, SortBy.Priority, SortBy.Deadline)) {
+                Map<Object, List<String>> expected = report(rows, groupBy, sortBy);
+                assertEquals(expected, report(columns, groupBy, sortBy), groupBy + " sorted by " + sortBy);
+                assertEquals(expected, report(parallel, groupBy, sortBy), groupBy + " sorted by " + sortBy);
+            }
+        }
+    }
+
+    @Test
+    void everyReportKeysOwnersByUsernameAndMissingValuesAsNone() {
+        DataStore dataStore = open(false, 0);
+        ReportsServiceImpl service = service(dataStore);
+
+        Map<Object, List<String>> byOwner = report(service, GroupBy.Owner, SortBy.Priority);
+        assertEquals(Map.of(ADMIN, List.of("a", "d", "c"), "bob", List.of("b"), GroupBy.NO_VALUE, List.of("e", "f")), byOwner);
+        Map<Object, List<String>> byCategory = report(service, GroupBy.Category, null);
+        assertEquals(List.of("b", "c", "f"), byCategory.get(GroupBy.NO_VALUE));
+
+        for (GroupBy groupBy : GroupBy.values()) {
+            Map<Object, Integer> sizes = new LinkedHashMap<>();
+            report(service, groupBy, null).forEach((key, names) -> sizes.put(key, names.size()));
+            assertEquals(sizes, dataStore.countBy(ALL, groupBy), "counts by " + groupBy);
+        }
+    }
+
+    @Test
+    void remainingPredicatesAreCheckedOnceTheResultIsSmallerThanTheNextIndex() {
+        ReportsServiceImpl rows = service(open(false, 0));
+        ReportsServiceImpl columns = service(open(true, 0));
+        ReportsFilterRequestDTO createdInRange = new ReportsFilterRequestDTO(null, TaskStatus.Created, null, null, null, -10, 2, null, null);
+
+        Map<String, Object> explained = explain(rows, createdInRange, null, null);
+        ReportPlanDTO plan = (ReportPlanDTO) explained.get("plan");
+        assertEquals("index:priority in [-10, 2]", plan.getAccessPath());
+        assertEquals(Map.of("priority in [-10, 2]", 4, "status=Created", 5), plan.getEstimatedCardinalities());
+        assertEquals(List.of(), plan.getIntersectedIndexes());
+        assertEquals(List.of("status=Created"), plan.getResidualPredicates());
+        assertEquals(Collections.singletonMap(null, List.of("b", "d", "e")), groups(explained));
+
+        List<ReportsFilterRequestDTO> filters = List.of(createdInRange,
+                new ReportsFilterRequestDTO(null, null, Category.Work, null, ADMIN, null, null, null, null),
+                new ReportsFilterRequestDTO(null, TaskStatus.Created, null, null, ADMIN, null, null, null, LocalDate.now().plusDays(3)),
+                new ReportsFilterRequestDTO(2, TaskStatus.Created, null, null, null, 0, null, null, null));
+        for (ReportsFilterRequestDTO filter : filters) {
+            assertEquals(groups(explain(columns, filter, GroupBy.Owner, SortBy.Deadline)),
+                    groups(explain(rows, filter, GroupBy.Owner, SortBy.Deadline)));
+        }
+    }
+
+    private static Map<Object, List<String>> report(ReportsServiceImpl service, GroupBy groupBy, SortBy sortBy) {
+        return groups(explain(service, ALL, groupBy, sortBy));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> explain(ReportsServiceImpl service, ReportsFilterRequestDTO filter, GroupBy groupBy, SortBy sortBy) {
+        ApiResponseDTO<?> response = service.fetchReport(ADMIN, filter, sortBy, groupBy, true, null, null, null);
+        assertFalse(response.isError(), response.getMessage());
+        return (Map<String, Object>) response.getData();
+    }
+
+    private static Map<Object, List<String>> groups(Map<String, Object> explained) {
+        @SuppressWarnings("unchecked")
+        Map<Object, List<TaskSummaryDTO>> report = (Map<Object, List<TaskSummaryDTO>>) explained.get("report");
+        Map<Object, List<String>> names = new HashMap<>();
+        report.forEach((key, summaries) -> names.put(key, summaries.stream()
+                .map(summary -> summary.getTask().getName())
+                .collect(Collectors.toList())));
+        return names;
+    }
+
+    private static ReportsServiceImpl service(DataStore dataStore) {
+        return new ReportsServiceImpl(new UserServiceImpl(dataStore), dataStore, new ObjectMapper(), 16);
+    }
+
+    /**
+     * Opens a data store holding the same tasks in the same order, with some attributes of every kind unset.
+     */
+    private DataStore open(boolean columnar, int parallelThreshold) {
+        DataStore dataStore = new DataStore();
+        ReflectionTestUtils.setField(dataStore, "username", ADMIN);
+        ReflectionTestUtils.setField(dataStore, "firstName", "Ada");
+        ReflectionTestUtils.setField(dataStore, "lastName", "Admin");
+        ReflectionTestUtils.setField(dataStore, "columnarEnabled", columnar);
+        ReflectionTestUtils.setField(dataStore, "parallelThreshold", parallelThreshold);
+        dataStore.init();
+        opened.add(dataStore);
+
+        User admin = dataStore.getAllUsers().get(ADMIN);
+        User bob = new User("bob", "Bob", "B");
+        bob.getRoles().add(Role.Manager);
+        dataStore.addNewUser(bob);
+        LocalDate today = LocalDate.now();
+        dataStore.addNewUserTask(new Task("a", null, 2, Category.Work, today.plusDays(4), admin));
+        dataStore.addNewUserTask(new Task("b", null, 1, null, today.plusDays(4), bob));
+        dataStore.addNewUserTask(new Task("c", null, null, null, today.plusDays(1), admin));
+        dataStore.addNewUserTask(new Task("d", null, 2, Category.Urgent, null, admin));
+        dataStore.addNewUserTask(new Task("e", null, -5, Category.Work, today.plusDays(2), null));
+        dataStore.addNewUserTask(new Task("f", null, null, null, null, null));
+        dataStore.scheduleTask(dataStore.getTask("a"));
+        return dataStore;
+    }
+}
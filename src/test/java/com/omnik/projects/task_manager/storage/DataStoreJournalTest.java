@@ -0,0 +1,182 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.dto.request.TaskPlanRequestDTO;
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.entities.TaskAttributes;
+import com.omnik.projects.task_manager.entities.User;
+import com.omnik.projects.task_manager.enums.Category;
+import com.omnik.projects.task_manager.enums.Role;
+import com.omnik.projects.task_manager.enums.TaskStatus;
+import com.omnik.projects.task_manager.storage.journal.FsyncPolicy;
+import com.omnik.projects.task_manager.storage.journal.Journal;
+import com.omnik.projects.task_manager.storage.journal.RecordType;
+import com.omnik.projects.task_manager.storage.journal.RecordWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DataStoreJournalTest {
+
+    private static final String ADMIN = "admin";
+
+    @TempDir
+    Path directory;
+
+    private final List<DataStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        opened.forEach(DataStore::shutdown);
+    }
+
+    @Test
+    void replayRebuildsEveryJournaledMutation() throws IOException {
+        Path path = directory.resolve("datastore.journal");
+        DataStore dataStore = open(path);
+        User admin = dataStore.getAllUsers().get(ADMIN);
+        User bob = new User("bob", "Bob", "B");
+        bob.getRoles().add(Role.Manager);
+        dataStore.addNewUser(bob);
+
+        LocalDate today = LocalDate.now();
+        Task a = task("a", "first ü", 1, Category.Work, today.plusDays(3), admin);
+        Task b = task("b", "second", 2, null, today.plusDays(5), admin);
+        Task c = task("c", "third", null, null, null, bob);
+        Task d = task("d", "fourth", null, null, null, admin);
+        Task e = task("e", null, null, Category.Urgent, null, admin);
+        for (Task task : List.of(a, b, c, d, e)) {
+            dataStore.addNewUserTask(task);
+        }
+        dataStore.addNewTaskDependencies(b, Set.of(a));
+        dataStore.scheduleTask(a);
+        dataStore.bufferTask(c);
+        dataStore.bufferTask(d);
+        dataStore.planBufferedTasks(List.of(new TaskPlanRequestDTO("c", 0, today.plusDays(1))));
+        dataStore.updateTaskAttributes(Map.of(d, new TaskAttributes(null, null, Category.Personal)));
+        dataStore.processTask(c, TaskStatus.InProgress);
+        dataStore.updateTaskStatus(b, TaskStatus.Completed);
+        dataStore.deleteTask(e);
+        String before = describe(dataStore);
+        dataStore.shutdown();
+        opened.remove(dataStore);
+
+        Set<RecordType> journaled = EnumSet.noneOf(RecordType.class);
+        Journal journal = new Journal(path, FsyncPolicy.Always, 10);
+        journal.replay((type, record) -> journaled.add(type));
+        journal.close();
+        assertEquals(EnumSet.complementOf(EnumSet.of(RecordType.TaskDequeued)), journaled);
+
+        assertEquals(before, describe(open(path)));
+    }
+
+    @Test
+    void replaysTheTwoRecordsEarlierVersionsWroteForAProcessedTask() throws IOException {
+        Path path = directory.resolve("datastore.journal");
+        LocalDate deadline = LocalDate.now().plusDays(2);
+        Journal journal = new Journal(path, FsyncPolicy.Always, 10);
+        journal.replay((type, record) -> fail("A new journal has no records"));
+        RecordWriter record = new RecordWriter();
+        journal.append(record.reset(RecordType.TaskAdded).writeString("x").writeString("legacy").writeInteger(1)
+                .writeEnum(TaskStatus.Created).writeEnum(null).writeDate(deadline).writeString(ADMIN));
+        journal.append(record.reset(RecordType.TaskScheduled).writeString("x"));
+        journal.append(record.reset(RecordType.TaskDequeued).writeString("x"));
+        journal.awaitDurable(journal.append(record.reset(RecordType.TaskStatusChanged).writeString("x").writeEnum(TaskStatus.InProgress)));
+        journal.close();
+
+        DataStore dataStore = open(path);
+        Task x = dataStore.getTask("x");
+        assertEquals(TaskStatus.InProgress, x.getStatus());
+        assertFalse(dataStore.isTaskScheduled(x));
+        assertEquals(1, dataStore.getCounters().getByStatus().get(TaskStatus.InProgress));
+    }
+
+    @Test
+    void statusOfAnUnknownTaskIsNotJournaled() throws IOException {
+        Path path = directory.resolve("datastore.journal");
+        DataStore dataStore = open(path);
+        Task unknown = task("ghost", null, null, null, null, null);
+
+        assertThrows(RuntimeException.class, () -> dataStore.updateTaskStatus(unknown, TaskStatus.Completed));
+        dataStore.shutdown();
+        opened.remove(dataStore);
+
+        assertNull(open(path).getTask("ghost"));
+    }
+
+    @Test
+    void mutationsAreRefusedWithoutChangesOnceTheJournalFails() {
+        Path full = Paths.get("/dev/full");
+        assumeTrue(Files.isWritable(full), "needs /dev/full to make journal writes fail");
+        DataStore dataStore = open(full);
+        User admin = dataStore.getAllUsers().get(ADMIN);
+
+        assertThrows(IllegalStateException.class, () -> dataStore.addNewUserTask(task("first", null, null, null, null, admin)));
+
+        long version = dataStore.getSnapshot().getVersion();
+        assertThrows(IllegalStateException.class, () -> dataStore.addNewUserTask(task("second", null, null, null, null, admin)));
+        assertThrows(IllegalStateException.class, () -> dataStore.addNewUser(new User("carol", "Carol", "C")));
+        assertNull(dataStore.getTask("second"));
+        assertNull(dataStore.getAllUsers().get("carol"));
+        assertEquals(version, dataStore.getSnapshot().getVersion());
+    }
+
+    private DataStore open(Path path) {
+        DataStore dataStore = new DataStore();
+        ReflectionTestUtils.setField(dataStore, "username", ADMIN);
+        ReflectionTestUtils.setField(dataStore, "firstName", "Ada");
+        ReflectionTestUtils.setField(dataStore, "lastName", "Admin");
+        ReflectionTestUtils.setField(dataStore, "journalEnabled", true);
+        ReflectionTestUtils.setField(dataStore, "journalPath", path.toString());
+        ReflectionTestUtils.setField(dataStore, "fsyncPolicy", FsyncPolicy.Always);
+        ReflectionTestUtils.setField(dataStore, "fsyncIntervalMillis", 10L);
+        dataStore.init();
+        opened.add(dataStore);
+        return dataStore;
+    }
+
+    private static Task task(String name, String description, Integer priority, Category category, LocalDate deadline, User owner) {
+        return new Task(name, description, priority, category, deadline, owner);
+    }
+
+    /**
+     * Renders everything the journal restores: users, tasks with their dependencies, the schedule in order,
+     * the buffer and the counters.
+     */
+    private static String describe(DataStore dataStore) {
+        StringBuilder state = new StringBuilder();
+        new TreeMap<>(dataStore.getAllUsers()).values().forEach(user -> state.append(user.getUsername()).append(' ')
+                .append(user.getFirstName()).append(' ').append(user.getLastName()).append(' ')
+                .append(new TreeSet<>(user.getRoles())).append('\n'));
+        List<Task> tasks = dataStore.getSnapshot().getTasks().values()
+                .sorted(Comparator.comparing(Task::getName))
+                .collect(Collectors.toList());
+        List<List<String>> dependencies = dataStore.getDependencyNames(tasks);
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            state.append(task.getName()).append('|').append(task.getDescription()).append('|').append(task.getPriority())
+                    .append('|').append(task.getStatus()).append('|').append(task.getCategory()).append('|')
+                    .append(task.getDeadline()).append('|').append(task.getOwner() == null ? null : task.getOwner().getUsername())
+                    .append('|').append(dependencies.get(i)).append('\n');
+        }
+        state.append("scheduled ").append(names(dataStore.getAllScheduledTasks())).append('\n');
+        state.append("buffered ").append(names(dataStore.getAllBufferedTasks())).append('\n');
+        state.append("by status ").append(dataStore.getCounters().getByStatus()).append('\n');
+        return state.toString();
+    }
+
+    private static List<String> names(Collection<Task> tasks) {
+        return tasks.stream().map(Task::getName).collect(Collectors.toList());
+    }
+}
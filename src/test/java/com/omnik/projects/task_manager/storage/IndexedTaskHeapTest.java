@@ -0,0 +1,147 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.entities.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedTaskHeapTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    @Test
+    void sortKeyOrdersByPriorityThenDeadline() {
+        List<Task> expected = List.of(
+                task(0, -3, LocalDate.of(9999, 12, 31)),
+                task(1, 0, LocalDate.of(1970, 1, 1).minusDays(1)),
+                task(2, 0, LocalDate.of(1970, 1, 1)),
+                task(3, 0, TODAY),
+                task(4, 1, LocalDate.of(1900, 1, 1)),
+                task(5, Integer.MAX_VALUE, TODAY));
+        for (int i = 1; i < expected.size(); i++) {
+            assertTrue(IndexedTaskHeap.sortKey(expected.get(i - 1)) < IndexedTaskHeap.sortKey(expected.get(i)), "at " + i);
+        }
+    }
+
+    @Test
+    void pollReturnsTasksInKeyOrderAfterRemovals() {
+        Random random = new Random(42);
+        IndexedTaskHeap heap = new IndexedTaskHeap();
+        List<Task> tasks = new ArrayList<>();
+        for (int id = 0; id < 500; id++) {
+            Task task = task(id, random.nextInt(10) - 5, TODAY.plusDays(random.nextInt(30)));
+            tasks.add(task);
+            heap.add(task);
+        }
+        List<Task> remaining = new ArrayList<>(tasks);
+        for (int i = 0; i < 150; i++) {
+            Task removed = remaining.remove(random.nextInt(remaining.size()));
+            assertTrue(heap.remove(removed));
+            assertFalse(heap.contains(removed));
+            assertFalse(heap.remove(removed));
+        }
+
+        assertEquals(remaining.size(), heap.size());
+        assertPollsInOrder(heap, remaining);
+    }
+
+    @Test
+    void batchAddsKeepTheHeapOrder() {
+        Random random = new Random(7);
+        IndexedTaskHeap heap = new IndexedTaskHeap();
+        List<Task> tasks = new ArrayList<>();
+        for (int id = 0; id < 300; id++) {
+            tasks.add(task(id, random.nextInt(20), TODAY.plusDays(random.nextInt(60))));
+        }
+        heap.addAll(tasks.subList(0, 10));
+        heap.addAll(tasks.subList(10, 15));
+        heap.addAll(tasks.subList(15, tasks.size()));
+
+        assertThrows(IllegalStateException.class, () -> heap.add(tasks.get(3)));
+        assertPollsInOrder(heap, tasks);
+    }
+
+    @Test
+    void updatesReSiftTheTaskInPlace() {
+        Random random = new Random(11);
+        IndexedTaskHeap heap = new IndexedTaskHeap();
+        List<Task> tasks = new ArrayList<>();
+        for (int id = 0; id < 400; id++) {
+            Task task = task(id, random.nextInt(50), TODAY.plusDays(random.nextInt(90)));
+            tasks.add(task);
+            heap.add(task);
+        }
+        for (int i = 0; i < 300; i++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            if (random.nextBoolean()) {
+                task.setPriority(task.getPriority() - 1 - random.nextInt(20));
+            } else {
+                task.setDeadline(task.getDeadline().plusDays(1 + random.nextInt(40)));
+            }
+            assertTrue(heap.update(task));
+        }
+
+        assertPollsInOrder(heap, tasks);
+    }
+
+    @Test
+    void decreasedKeyMovesToTheTopAndIncreasedKeyLeavesIt() {
+        IndexedTaskHeap heap = new IndexedTaskHeap();
+        Task first = task(0, 1, TODAY);
+        Task second = task(1, 2, TODAY);
+        Task last = task(2, 9, TODAY);
+        heap.addAll(List.of(first, second, last));
+
+        last.setPriority(0);
+        heap.update(last);
+        assertSame(last, heap.peek());
+
+        last.setDeadline(TODAY.plusDays(1));
+        last.setPriority(1);
+        heap.update(last);
+        assertSame(first, heap.peek());
+
+        first.setPriority(3);
+        heap.update(first);
+        assertEquals(List.of(last, second, first), List.of(heap.poll(), heap.poll(), heap.poll()));
+        assertFalse(heap.update(first));
+    }
+
+    @Test
+    void aTaskReusingARemovedIdIsNotContained() {
+        IndexedTaskHeap heap = new IndexedTaskHeap();
+        Task removed = task(3, 1, TODAY);
+        heap.add(removed);
+        heap.add(task(4, 2, TODAY));
+        heap.remove(removed);
+
+        Task reusing = task(3, 0, TODAY);
+        assertFalse(heap.contains(reusing));
+        heap.add(reusing);
+        assertSame(reusing, heap.peek());
+        assertFalse(heap.contains(removed));
+    }
+
+    private static void assertPollsInOrder(IndexedTaskHeap heap, Collection<Task> expected) {
+        List<Task> polled = new ArrayList<>();
+        Task task;
+        while ((task = heap.poll()) != null) {
+            if (!polled.isEmpty()) {
+                assertTrue(IndexedTaskHeap.sortKey(polled.get(polled.size() - 1)) <= IndexedTaskHeap.sortKey(task));
+            }
+            polled.add(task);
+        }
+        assertTrue(heap.isEmpty());
+        assertEquals(new HashSet<>(expected), new HashSet<>(polled));
+        assertEquals(expected.size(), polled.size());
+    }
+
+    private static Task task(int id, int priority, LocalDate deadline) {
+        Task task = new Task("task-" + id, null, priority, null, deadline, null);
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,101 @@
+package com.omnik.projects.task_manager.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutationPipelineTest {
+
+    @Test
+    void commandsAreAppliedInPublicationOrder() {
+        MutationPipeline pipeline = new MutationPipeline(4);
+        List<Integer> applied = new ArrayList<>();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            futures.add(pipeline.publish(() -> {
+                applied.add(value);
+                return value;
+            }));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, futures.get(i).join());
+        }
+        pipeline.shutdown();
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, applied);
+        assertEquals(99, pipeline.getAppliedSequence());
+    }
+
+    @Test
+    void commandExceptionsReachTheCaller() {
+        MutationPipeline pipeline = new MutationPipeline(2);
+        IllegalArgumentException thrown = new IllegalArgumentException("rejected");
+
+        assertSame(thrown, assertThrows(IllegalArgumentException.class, () -> pipeline.execute(() -> {
+            throw thrown;
+        })));
+        assertEquals(7, pipeline.execute(() -> 7));
+        pipeline.shutdown();
+    }
+
+    @Test
+    void producerWaitingOnAFullRingReturnsOnShutdown() throws Exception {
+        MutationPipeline pipeline = new MutationPipeline(2);
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> first = pipeline.publish(() -> {
+            writerBlocked.countDown();
+            await(release);
+            return 1;
+        });
+        assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> second = pipeline.publish(() -> 2);
+
+        CompletableFuture<CompletableFuture<Integer>> lapping = new CompletableFuture<>();
+        Thread producer = new Thread(() -> lapping.complete(pipeline.publish(() -> 3)));
+        producer.start();
+        waitUntilParked(producer);
+        assertFalse(lapping.isDone());
+
+        Thread shutdown = new Thread(pipeline::shutdown);
+        shutdown.start();
+        CompletableFuture<Integer> third = lapping.get(5, TimeUnit.SECONDS);
+        CompletionException failure = assertThrows(CompletionException.class, third::join);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+
+        release.countDown();
+        shutdown.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(shutdown.isAlive());
+        assertEquals(1, first.join());
+        assertEquals(2, second.join());
+        assertThrows(IllegalStateException.class, () -> pipeline.publish(() -> 4));
+    }
+
+    private static void waitUntilParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "producer never started waiting for a slot");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
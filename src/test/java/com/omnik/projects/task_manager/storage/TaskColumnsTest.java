@@ -0,0 +1,47 @@
+package com.omnik.projects.task_manager.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskColumnsTest {
+
+    private static final long[] KEYS = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -5, -1, 0, 1, 42, Integer.MAX_VALUE, TaskColumns.MISSING_KEY};
+    private static final int[] POSITIONS = {0, 1, 7, 1 << 30, Integer.MAX_VALUE};
+
+    @Test
+    void packedKeysAndPositionsRoundTrip() {
+        for (long key : KEYS) {
+            for (int position : POSITIONS) {
+                long packed = TaskColumns.pack(key, position);
+                assertEquals(key, TaskColumns.unpackKey(packed), "key of " + key + "/" + position);
+                assertEquals(position, TaskColumns.unpackPosition(packed), "position of " + key + "/" + position);
+            }
+        }
+    }
+
+    @Test
+    void packedLongsSortByKeyThenPosition() {
+        List<Long> packed = new ArrayList<>();
+        for (int k = KEYS.length - 1; k >= 0; k--) {
+            for (int p = POSITIONS.length - 1; p >= 0; p--) {
+                packed.add(TaskColumns.pack(KEYS[k], POSITIONS[p]));
+            }
+        }
+        long[] sorted = packed.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+
+        int i = 0;
+        for (long key : KEYS) {
+            for (int position : POSITIONS) {
+                assertEquals(key, TaskColumns.unpackKey(sorted[i]));
+                assertEquals(position, TaskColumns.unpackPosition(sorted[i]));
+                i++;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.omnik.projects.task_manager.storage;
+
+import com.omnik.projects.task_manager.dto.request.ReportsFilterRequestDTO;
+import com.omnik.projects.task_manager.dto.response.ReportPageDTO;
+import com.omnik.projects.task_manager.dto.response.ReportPlanDTO;
+import com.omnik.projects.task_manager.entities.Task;
+import com.omnik.projects.task_manager.enums.Category;
+import com.omnik.projects.task_manager.enums.reports.SortBy;
+import com.omnik.projects.task_manager.exceptions.IllegalOperationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskOrderIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+    private static final Integer[] PRIORITIES = {null, -2, 1, 1};
+    private static final LocalDate[] DEADLINES = {null, TODAY, TODAY, TODAY.plusDays(1)};
+    private static final String[] NAMES = {"a", "a|b", "|", "ü ✓", "a b", "x||y"};
+
+    private DataStore dataStore;
+
+    @AfterEach
+    void shutdown() {
+        if (dataStore != null) {
+            dataStore.shutdown();
+        }
+    }
+
+    @Test
+    void cursorsRoundTripEveryKey() {
+        for (Task task : tiedTasks()) {
+            TaskOrderIndex.SortKey key = TaskOrderIndex.SortKey.of(task);
+            TaskOrderIndex.SortKey decoded = TaskOrderIndex.SortKey.decode(key.encode());
+
+            assertEquals(key.getPriority(), decoded.getPriority());
+            assertEquals(key.getDeadline(), decoded.getDeadline());
+            assertEquals(key.getName(), decoded.getName());
+            for (SortBy sortBy : SortBy.values()) {
+                assertEquals(0, TaskOrderIndex.comparator(sortBy).compare(key, decoded), task.getName());
+            }
+            assertFalse(key.encode().matches(".*[+/=].*"), "not URL-safe: " + key.encode());
+        }
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        for (String cursor : List.of("not base64!", encode("1|2024-06-01"), encode("x|2024-06-01|a"), encode("1|June|a"))) {
+            assertThrows(IllegalOperationException.class, () -> TaskOrderIndex.SortKey.decode(cursor), cursor);
+        }
+    }
+
+    @Test
+    void pagingThroughTiedKeysVisitsEveryTaskOnceInOrder() {
+        List<Task> tasks = tiedTasks();
+        TaskOrderIndex index = new TaskOrderIndex();
+        Map<Integer, Task> byId = new HashMap<>();
+        Collections.shuffle(tasks, new Random(1));
+        for (Task task : tasks) {
+            byId.put(task.getId(), task);
+            index.add(task);
+        }
+
+        for (SortBy sortBy : SortBy.values()) {
+            List<Task> expected = new ArrayList<>(tasks);
+            expected.sort(Comparator.comparing(TaskOrderIndex.SortKey::of, TaskOrderIndex.comparator(sortBy)));
+            for (int limit : new int[]{1, 2, 5, tasks.size()}) {
+                List<Task> visited = new ArrayList<>();
+                String cursor = null;
+                do {
+                    TaskOrderIndex.SortKey after = cursor == null ? null : TaskOrderIndex.SortKey.decode(cursor);
+                    List<Task> page = index.after(sortBy, after).stream().limit(limit).map(byId::get).collect(Collectors.toList());
+                    visited.addAll(page);
+                    cursor = page.size() < limit ? null : TaskOrderIndex.SortKey.of(page.get(page.size() - 1)).encode();
+                } while (cursor != null);
+                assertEquals(expected, visited, sortBy + " in pages of " + limit);
+            }
+        }
+    }
+
+    @Test
+    void bothPagePlansVisitTiedTasksOnceInTheSameOrder() {
+        dataStore = new DataStore();
+        ReflectionTestUtils.setField(dataStore, "username", "admin");
+        ReflectionTestUtils.setField(dataStore, "firstName", "Ada");
+        ReflectionTestUtils.setField(dataStore, "lastName", "Admin");
+        dataStore.init();
+        List<Task> tasks = tiedTasks();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            dataStore.addNewUserTask(new Task(task.getName(), null, task.getPriority(), i % 8 == 0 ? Category.Work : null,
+                    task.getDeadline(), null));
+        }
+        ReportsFilterRequestDTO all = new ReportsFilterRequestDTO(null, null, null, null, null, null, null, null, null);
+        ReportsFilterRequestDTO work = new ReportsFilterRequestDTO(null, null, Category.Work, null, null, null, null, null, null);
+
+        for (SortBy sortBy : SortBy.values()) {
+            List<String> walked = pageThrough(all, sortBy, 4, "sorted-index:" + sortBy);
+            assertEquals(tasks.size(), new HashSet<>(walked).size());
+            List<String> heaped = pageThrough(work, sortBy, 2, "top-k-heap");
+            assertEquals(walked.stream().filter(heaped::contains).collect(Collectors.toList()), heaped);
+            assertEquals((tasks.size() + 7) / 8, heaped.size());
+        }
+    }
+
+    private List<String> pageThrough(ReportsFilterRequestDTO filter, SortBy sortBy, int limit, String ordering) {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            ReportPlanDTO plan = new ReportPlanDTO();
+            TaskOrderIndex.SortKey after = cursor == null ? null : TaskOrderIndex.SortKey.decode(cursor);
+            ReportPageDTO<Task> page = dataStore.pageBy(filter, sortBy, limit, after, plan);
+            assertEquals(ordering, plan.getOrdering());
+            page.getTasks().forEach(task -> names.add(task.getName()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(names.size(), new HashSet<>(names).size(), "task visited twice");
+        return names;
+    }
+
+    /**
+     * Tasks sharing every priority and deadline combination, including missing ones, whose names contain the
+     * cursor separator.
+     */
+    private static List<Task> tiedTasks() {
+        List<Task> tasks = new ArrayList<>();
+        for (Integer priority : PRIORITIES) {
+            for (LocalDate deadline : DEADLINES) {
+                for (String name : NAMES) {
+                    Task task = new Task(name + "#" + tasks.size(), null, priority, null, deadline, null);
+                    task.setId(tasks.size());
+                    tasks.add(task);
+                }
+            }
+        }
+        return tasks;
+    }
+
+    private static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
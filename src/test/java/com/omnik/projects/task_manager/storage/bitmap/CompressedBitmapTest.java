@@ -0,0 +1,138 @@
+package com.omnik.projects.task_manager.storage.bitmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBitmapTest {
+
+    private static final int CHUNK = 1 << 16;
+
+    @Test
+    void andAndOrMatchASetOnEitherSideOfTheArrayLimit() {
+        Random random = new Random(5);
+        int[] sizes = {0, 1, 2048, 4095, 4096, 4097, 6000, 40_000};
+        for (int leftSize : sizes) {
+            for (int rightSize : sizes) {
+                TreeSet<Integer> left = values(random, 0, leftSize);
+                TreeSet<Integer> right = values(random, 0, rightSize);
+                assertOperations(left, right, leftSize + " with " + rightSize);
+            }
+        }
+    }
+
+    @Test
+    void andAndOrWorkAcrossSeveralChunks() {
+        Random random = new Random(9);
+        TreeSet<Integer> left = new TreeSet<>();
+        TreeSet<Integer> right = new TreeSet<>();
+        left.addAll(values(random, 0, 5000));
+        left.addAll(values(random, CHUNK, 10));
+        left.addAll(values(random, 3 * CHUNK, 4096));
+        left.addAll(List.of(CHUNK - 1, 2 * CHUNK, Integer.MAX_VALUE));
+        right.addAll(values(random, 0, 100));
+        right.addAll(values(random, CHUNK, 4097));
+        right.addAll(values(random, 3 * CHUNK, 30_000));
+        right.addAll(List.of(CHUNK - 1, 5 * CHUNK, Integer.MAX_VALUE));
+
+        assertOperations(left, right, "chunks");
+    }
+
+    @Test
+    void addingAndRemovingAroundTheArrayLimitKeepsTheContents() {
+        Random random = new Random(13);
+        TreeSet<Integer> expected = new TreeSet<>();
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value = 0; value < 4096; value++) {
+            expected.add(value * 3);
+            bitmap.add(value * 3);
+        }
+        for (int step = 0; step < 20_000; step++) {
+            int value = random.nextInt(4200 * 3);
+            if (expected.size() > 4096 || (expected.size() >= 4096 && random.nextBoolean())) {
+                value = expected.ceiling(value) == null ? expected.first() : expected.ceiling(value);
+                expected.remove(value);
+                bitmap.remove(value);
+            } else {
+                expected.add(value);
+                bitmap.add(value);
+            }
+            assertEquals(expected.size(), bitmap.getCardinality());
+        }
+        assertEquals(expected, contents(bitmap));
+
+        for (int value : new ArrayList<>(expected)) {
+            bitmap.remove(value);
+            expected.remove(value);
+            assertEquals(expected.size(), bitmap.getCardinality());
+            if (expected.size() % 1000 == 0) {
+                assertEquals(expected, contents(bitmap));
+            }
+        }
+        assertTrue(bitmap.isEmpty());
+        bitmap.add(7);
+        assertEquals(Set.of(7), contents(bitmap));
+    }
+
+    @Test
+    void orOfManyBitmapsMatchesTheirUnion() {
+        Random random = new Random(21);
+        List<CompressedBitmap> bitmaps = new ArrayList<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int size : new int[]{3, 4000, 4096, 900, 0, 12_000}) {
+            TreeSet<Integer> values = values(random, random.nextInt(3) * CHUNK, size);
+            expected.addAll(values);
+            bitmaps.add(bitmap(values));
+        }
+
+        CompressedBitmap union = CompressedBitmap.or(bitmaps);
+        assertEquals(expected, contents(union));
+        assertEquals(expected.size(), union.getCardinality());
+        assertTrue(CompressedBitmap.or(List.of()).isEmpty());
+    }
+
+    private static void assertOperations(TreeSet<Integer> left, TreeSet<Integer> right, String message) {
+        CompressedBitmap leftBitmap = bitmap(left);
+        CompressedBitmap rightBitmap = bitmap(right);
+        TreeSet<Integer> intersection = new TreeSet<>(left);
+        intersection.retainAll(right);
+        TreeSet<Integer> union = new TreeSet<>(left);
+        union.addAll(right);
+
+        CompressedBitmap and = CompressedBitmap.and(leftBitmap, rightBitmap);
+        CompressedBitmap or = CompressedBitmap.or(leftBitmap, rightBitmap);
+        assertEquals(intersection, contents(and), "and of " + message);
+        assertEquals(intersection.size(), and.getCardinality(), "and of " + message);
+        assertEquals(intersection.size(), CompressedBitmap.andCardinality(leftBitmap, rightBitmap), "andCardinality of " + message);
+        assertEquals(union, contents(or), "or of " + message);
+        assertEquals(union.size(), or.getCardinality(), "or of " + message);
+        assertEquals(left, contents(leftBitmap), "left operand of " + message);
+        assertEquals(right, contents(rightBitmap), "right operand of " + message);
+    }
+
+    private static TreeSet<Integer> values(Random random, int base, int size) {
+        TreeSet<Integer> values = new TreeSet<>();
+        while (values.size() < size) {
+            values.add(base + random.nextInt(CHUNK));
+        }
+        return values;
+    }
+
+    private static CompressedBitmap bitmap(Collection<Integer> values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        values.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static TreeSet<Integer> contents(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        TreeSet<Integer> contents = new TreeSet<>(values);
+        assertEquals(values.size(), contents.size(), "value visited twice");
+        assertEquals(new ArrayList<>(contents), values, "values not visited in order");
+        contents.forEach(value -> assertTrue(bitmap.contains(value)));
+        return contents;
+    }
+}
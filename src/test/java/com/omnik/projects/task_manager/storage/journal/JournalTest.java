@@ -0,0 +1,221 @@
+package com.omnik.projects.task_manager.storage.journal;
+
+import com.omnik.projects.task_manager.enums.Category;
+import com.omnik.projects.task_manager.enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Category[] CATEGORIES = Category.values();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void everyRecordTypeRoundTrips() throws IOException {
+        Path path = directory.resolve("journal");
+        Journal journal = open(path, new ArrayList<>());
+        long lsn = 0;
+        for (RecordType type : RecordType.values()) {
+            lsn = journal.append(record(type, type.ordinal()));
+        }
+        journal.awaitDurable(lsn);
+        journal.close();
+
+        List<String> replayed = new ArrayList<>();
+        Journal reopened = open(path, replayed);
+        reopened.close();
+
+        List<String> expected = new ArrayList<>();
+        for (RecordType type : RecordType.values()) {
+            expected.add(expected(type, type.ordinal()));
+        }
+        assertEquals(expected, replayed);
+        assertEquals(lsn, Files.size(path));
+    }
+
+    @Test
+    void nullsAndExtremeValuesRoundTrip() throws IOException {
+        Path path = directory.resolve("journal");
+        Journal journal = open(path, new ArrayList<>());
+        RecordWriter record = new RecordWriter().reset(RecordType.TaskAdded)
+                .writeString(null).writeString("").writeString("naïve ✓ 任务")
+                .writeInteger(null).writeInteger(Integer.MIN_VALUE).writeInteger(Integer.MAX_VALUE).writeInteger(-1)
+                .writeDate(null).writeDate(LocalDate.of(1900, 1, 1)).writeDate(LocalDate.of(9999, 12, 31))
+                .writeEnum(null).writeEnum(STATUSES[STATUSES.length - 1])
+                .writeCount(0).writeCount(Integer.MAX_VALUE);
+        journal.awaitDurable(journal.append(record));
+        journal.close();
+
+        List<Object> values = new ArrayList<>();
+        Journal reopened = new Journal(path, FsyncPolicy.Always, 10);
+        reopened.replay((type, reader) -> {
+            values.add(type);
+            values.add(reader.readString());
+            values.add(reader.readString());
+            values.add(reader.readString());
+            values.add(reader.readInteger());
+            values.add(reader.readInteger());
+            values.add(reader.readInteger());
+            values.add(reader.readInteger());
+            values.add(reader.readDate());
+            values.add(reader.readDate());
+            values.add(reader.readDate());
+            values.add(reader.readEnum(STATUSES));
+            values.add(reader.readEnum(STATUSES));
+            values.add(reader.readCount());
+            values.add(reader.readCount());
+        });
+        reopened.close();
+
+        assertEquals(Arrays.asList(RecordType.TaskAdded, null, "", "naïve ✓ 任务", null, Integer.MIN_VALUE, Integer.MAX_VALUE, -1,
+                null, LocalDate.of(1900, 1, 1), LocalDate.of(9999, 12, 31), null, STATUSES[STATUSES.length - 1], 0, Integer.MAX_VALUE), values);
+    }
+
+    @Test
+    void tornTailIsDroppedAtEveryCut() throws IOException {
+        Path path = directory.resolve("journal");
+        long intactEnd = writeRecords(path, 3);
+        long fullEnd = Files.size(path);
+        byte[] full = Files.readAllBytes(path);
+
+        for (long cut = intactEnd + 1; cut < fullEnd; cut++) {
+            Files.write(path, Arrays.copyOf(full, (int) cut));
+            List<String> replayed = new ArrayList<>();
+            open(path, replayed).close();
+
+            assertEquals(List.of(expected(RecordType.TaskAdded, 0), expected(RecordType.TaskAdded, 1)), replayed, "cut at " + cut);
+            assertEquals(intactEnd, Files.size(path), "cut at " + cut);
+        }
+    }
+
+    @Test
+    void corruptRecordAndEverythingAfterItIsDropped() throws IOException {
+        Path path = directory.resolve("journal");
+        long intactEnd = writeRecords(path, 3);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer octet = ByteBuffer.allocate(1);
+            channel.read(octet, intactEnd + 10);
+            octet.flip();
+            byte flipped = (byte) (octet.get() ^ 0x01);
+            channel.write(ByteBuffer.wrap(new byte[]{flipped}), intactEnd + 10);
+        }
+
+        List<String> replayed = new ArrayList<>();
+        open(path, replayed).close();
+
+        assertEquals(2, replayed.size());
+        assertEquals(intactEnd, Files.size(path));
+    }
+
+    @Test
+    void garbageLengthAfterTheLastRecordIsDropped() throws IOException {
+        Path path = directory.resolve("journal");
+        writeRecords(path, 2);
+        long end = Files.size(path);
+        Files.write(path, new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0, 0, 0, 0, 2}, StandardOpenOption.APPEND);
+
+        List<String> replayed = new ArrayList<>();
+        open(path, replayed).close();
+
+        assertEquals(2, replayed.size());
+        assertEquals(end, Files.size(path));
+    }
+
+    @Test
+    void appendsContinueAfterARecoveredTail() throws IOException {
+        Path path = directory.resolve("journal");
+        long intactEnd = writeRecords(path, 3);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(intactEnd + 3);
+        }
+
+        Journal journal = open(path, new ArrayList<>());
+        journal.awaitDurable(journal.append(record(RecordType.TaskDeleted, 7)));
+        journal.close();
+
+        List<String> replayed = new ArrayList<>();
+        open(path, replayed).close();
+        assertEquals(List.of(expected(RecordType.TaskAdded, 0), expected(RecordType.TaskAdded, 1), expected(RecordType.TaskDeleted, 7)), replayed);
+    }
+
+    @Test
+    void appendIsRefusedBeforeReplayAndAfterClose() throws IOException {
+        Journal journal = new Journal(directory.resolve("journal"), FsyncPolicy.Always, 10);
+        assertThrows(IllegalStateException.class, () -> journal.append(record(RecordType.TaskDeleted, 0)));
+
+        journal.replay((type, reader) -> fail("An empty journal has no records"));
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.append(record(RecordType.TaskDeleted, 0)));
+    }
+
+    @Test
+    void intervalPolicyMakesRecordsDurable() throws IOException {
+        Path path = directory.resolve("journal");
+        Journal journal = new Journal(path, FsyncPolicy.Interval, 1);
+        journal.replay((type, reader) -> fail("An empty journal has no records"));
+        long lsn = 0;
+        for (int i = 0; i < 100; i++) {
+            lsn = journal.append(record(RecordType.TaskScheduled, i));
+        }
+        journal.awaitDurable(lsn);
+        journal.close();
+
+        List<String> replayed = new ArrayList<>();
+        open(path, replayed).close();
+        assertEquals(100, replayed.size());
+        assertEquals(expected(RecordType.TaskScheduled, 99), replayed.get(99));
+    }
+
+    /**
+     * Writes {@code count} TaskAdded records and returns the LSN before the last one.
+     */
+    private long writeRecords(Path path, int count) throws IOException {
+        Journal journal = open(path, new ArrayList<>());
+        long beforeLast = 0;
+        long lsn = 0;
+        for (int i = 0; i < count; i++) {
+            beforeLast = lsn;
+            lsn = journal.append(record(RecordType.TaskAdded, i));
+        }
+        journal.awaitDurable(lsn);
+        journal.close();
+        return beforeLast;
+    }
+
+    private static Journal open(Path path, List<String> replayed) throws IOException {
+        Journal journal = new Journal(path, FsyncPolicy.Always, 10);
+        journal.replay((type, reader) -> replayed.add(type + ":" + reader.readString() + ":" + reader.readInteger()
+                + ":" + reader.readDate() + ":" + reader.readEnum(CATEGORIES) + ":" + reader.readCount()));
+        return journal;
+    }
+
+    private static RecordWriter record(RecordType type, int seed) {
+        return new RecordWriter().reset(type)
+                .writeString("task-" + seed)
+                .writeInteger(seed - 3)
+                .writeDate(LocalDate.of(2024, 1, 1).plusDays(seed))
+                .writeEnum(CATEGORIES[seed % CATEGORIES.length])
+                .writeCount(seed * 1000);
+    }
+
+    private static String expected(RecordType type, int seed) {
+        return type + ":task-" + seed + ":" + (seed - 3) + ":" + LocalDate.of(2024, 1, 1).plusDays(seed)
+                + ":" + CATEGORIES[seed % CATEGORIES.length] + ":" + seed * 1000;
+    }
+}
@@ -0,0 +1,139 @@
+package com.omnik.projects.task_manager.storage.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentHashMapTest {
+
+    @Test
+    void keysWithEqualHashesAreKeptApart() {
+        PersistentHashMap<Key, String> map = PersistentHashMap.empty();
+        for (int i = 0; i < 5; i++) {
+            map = map.plus(new Key(i, 17), "v" + i);
+        }
+        map = map.plus(new Key(2, 17), "replaced");
+
+        assertEquals(5, map.size());
+        assertEquals("replaced", map.get(new Key(2, 17)));
+        assertEquals("v4", map.get(new Key(4, 17)));
+        assertNull(map.get(new Key(5, 17)));
+        assertFalse(map.containsKey(new Key(0, 18)));
+        assertEquals(contents(map), Map.of(new Key(0, 17), "v0", new Key(1, 17), "v1", new Key(2, 17), "replaced",
+                new Key(3, 17), "v3", new Key(4, 17), "v4"));
+    }
+
+    @Test
+    void hashesSharingEveryLevelButTheLastAreSplitAtTheBottom() {
+        // The spread hash is h ^ (h >>> 16), so flipping bit 14 as well as bit 30 (or 15 and 31) changes only
+        // the top bits of the spread hash and the keys part ways in the last level of the trie.
+        int code = 0x1234ABCD;
+        Key first = new Key(1, code);
+        Key second = new Key(2, code ^ 0x40004000);
+        Key third = new Key(3, code ^ 0x80008000);
+        assertEquals(0x40000000, spread(first.hashCode()) ^ spread(second.hashCode()));
+        assertEquals(0x80000000, spread(first.hashCode()) ^ spread(third.hashCode()));
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.<Key, Integer>empty().plus(first, 1).plus(second, 2).plus(third, 3);
+
+        assertEquals(Map.of(first, 1, second, 2, third, 3), contents(map));
+        PersistentHashMap<Key, Integer> withoutSecond = map.minus(second);
+        assertEquals(Map.of(first, 1, third, 3), contents(withoutSecond));
+        assertEquals(Map.of(first, 1, second, 2, third, 3), contents(map));
+    }
+
+    @Test
+    void removingEveryKeyLeavesAnEmptyMap() {
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Key key = new Key(i, i % 4 == 0 ? 99 : i * 32);
+            keys.add(key);
+            map = map.plus(key, i);
+        }
+        Collections.shuffle(keys, new Random(3));
+        for (Key key : keys) {
+            PersistentHashMap<Key, Integer> before = map;
+            map = map.minus(key);
+            assertEquals(before.size() - 1, map.size());
+            assertFalse(map.containsKey(key));
+            assertTrue(before.containsKey(key));
+            assertSame(map, map.minus(key));
+        }
+
+        assertTrue(map.isEmpty());
+        assertSame(PersistentHashMap.empty(), map);
+        assertFalse(map.iterator().hasNext());
+        assertEquals(1, map.plus(keys.get(0), 0).size());
+    }
+
+    @Test
+    void randomUpdatesMatchAHashMap() {
+        Random random = new Random(2024);
+        Map<Key, Integer> expected = new HashMap<>();
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        List<PersistentHashMap<Key, Integer>> versions = new ArrayList<>();
+        List<Map<Key, Integer>> expectedVersions = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            Key key = new Key(random.nextInt(600), random.nextInt(64) << random.nextInt(27));
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, step);
+                map = map.plus(key, step);
+            }
+            if (step % 2_000 == 0) {
+                versions.add(map);
+                expectedVersions.add(new HashMap<>(expected));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, contents(map));
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(expectedVersions.get(i), contents(versions.get(i)), "version " + i);
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static <K, V> Map<K, V> contents(PersistentHashMap<K, V> map) {
+        Map<K, V> contents = new HashMap<>();
+        map.forEach((key, value) -> assertNull(contents.put(key, value), "key iterated twice: " + key));
+        assertEquals(map.size(), contents.size());
+        contents.forEach((key, value) -> assertEquals(value, map.get(key)));
+        return contents;
+    }
+
+    /**
+     * A key with a chosen hash code, so tests can force keys to share trie levels or whole hashes.
+     */
+    private static final class Key {
+        private final int id;
+        private final int hash;
+
+        private Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).id == id && ((Key) other).hash == hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return id + "#" + Integer.toHexString(hash);
+        }
+    }
+}